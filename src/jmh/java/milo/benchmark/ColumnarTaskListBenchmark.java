@@ -0,0 +1,128 @@
+package milo.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import milo.task.ColumnarTaskList;
+import milo.task.Task;
+import milo.task.TaskList;
+
+/**
+ * Measures the same searches and sorts as TaskListBenchmark on a ColumnarTaskList.
+ * Each trial first checks that the columnar list gives the same answers as TaskList,
+ * since the columnar list is not used anywhere else.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ColumnarTaskListBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ArrayList<Task> generated;
+    private ColumnarTaskList tasks;
+    private LocalDate searchDate;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        generated = new TaskDataGenerator().generate(size);
+        tasks = new ColumnarTaskList(generated);
+        searchDate = TaskDataGenerator.FIRST_DATE.plusDays(TaskDataGenerator.DATE_SPAN_DAYS / 2);
+        checkAgainstTaskList();
+    }
+
+    private void checkAgainstTaskList() {
+        // TaskList numbers the tasks it is given, so it gets its own copy of the same data
+        TaskList expected = new TaskList(new TaskDataGenerator().generate(size));
+        ColumnarTaskList actual = new ColumnarTaskList(generated);
+        expected.markTask(0);
+        actual.markTask(0);
+        expected.deleteTask(1);
+        actual.deleteTask(1);
+
+        checkSame(expected.findTasks("return book"), actual.findTasks("return book"));
+        checkSame(expected.findTasksOnDate(searchDate), actual.findTasksOnDate(searchDate));
+        checkSame(expected.findTasksBetween(searchDate, searchDate.plusDays(30)),
+                actual.findTasksBetween(searchDate, searchDate.plusDays(30)));
+        expected.sortAlphabetically();
+        actual.sortAlphabetically();
+        checkSame(expected.getTasks(), actual.getTasks());
+        expected.sortChronologically();
+        actual.sortChronologically();
+        checkSame(expected.getTasks(), actual.getTasks());
+    }
+
+    private static void checkSame(List<Task> expected, List<Task> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("ColumnarTaskList returned " + actual.size() + " tasks instead of "
+                    + expected.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).toFileFormat().equals(actual.get(i).toFileFormat())) {
+                throw new IllegalStateException("ColumnarTaskList returned " + actual.get(i).toFileFormat()
+                        + " instead of " + expected.get(i).toFileFormat());
+            }
+        }
+    }
+
+    /**
+     * Sorting mutates the list, so each sort starts again from a freshly shuffled copy.
+     */
+    @State(Scope.Thread)
+    public static class UnsortedList {
+        ColumnarTaskList tasks;
+
+        @Setup(Level.Invocation)
+        public void shuffle(ColumnarTaskListBenchmark benchmark) {
+            ArrayList<Task> copy = new ArrayList<>(benchmark.generated);
+            Collections.shuffle(copy, new Random(benchmark.size));
+            tasks = new ColumnarTaskList(copy);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Task> findSingleKeyword() {
+        return tasks.findTasks("book");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findAllKeywords() {
+        return tasks.findTasks("return book");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findOnDate() {
+        return tasks.findTasksOnDate(searchDate);
+    }
+
+    @Benchmark
+    public ArrayList<Task> findBetween() {
+        return tasks.findTasksBetween(searchDate, searchDate.plusDays(30));
+    }
+
+    @Benchmark
+    public ColumnarTaskList sortAlphabetically(UnsortedList unsorted) {
+        unsorted.tasks.sortAlphabetically();
+        return unsorted.tasks;
+    }
+
+    @Benchmark
+    public ColumnarTaskList sortChronologically(UnsortedList unsorted) {
+        unsorted.tasks.sortChronologically();
+        return unsorted.tasks;
+    }
+}
@@ -0,0 +1,76 @@
+package milo.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import milo.exception.MiloException;
+import milo.parser.Parser;
+import milo.storage.Storage;
+import milo.task.TaskList;
+import milo.ui.Ui;
+
+/**
+ * Measures a full {@link Parser#parse} round trip, including persistence, for each command type.
+ * The task list is regenerated before every iteration so that adding commands do not keep growing it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParserBenchmark {
+    @Param({"10000"})
+    public int size;
+
+    @Param({
+        "list",
+        "todo read book",
+        "deadline return book /by 2026-06-15",
+        "event orientation /from 2026-08-01 /to 2026-08-05",
+        "mark 1",
+        "unmark 1",
+        "find book",
+        "find-date 2026-06-15",
+        "find-range 2026-06-01 2026-06-30",
+        "sort name",
+        "sort date"
+    })
+    public String command;
+
+    private Path directory;
+    private TaskList tasks;
+    private Ui ui;
+    private Storage storage;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException, MiloException {
+        directory = Files.createTempDirectory("milo-parser-bench");
+        Path file = directory.resolve("milo.txt");
+        new TaskDataGenerator().writeTo(size, file);
+
+        ui = new Ui();
+        storage = new Storage(file.toString(), true);
+        tasks = new TaskList(storage.load());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String parse() throws MiloException, IOException {
+        return Parser.parse(command, tasks, ui, storage);
+    }
+}
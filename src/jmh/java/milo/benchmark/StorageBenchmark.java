@@ -0,0 +1,69 @@
+package milo.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import milo.exception.MiloException;
+import milo.storage.Storage;
+import milo.task.Task;
+
+/**
+ * Measures loading and saving whole task files of increasing size, in the text and binary formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"txt", "bin"})
+    public String format;
+
+    private Path directory;
+    private Storage loadStorage;
+    private Storage saveStorage;
+    private ArrayList<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, MiloException {
+        directory = Files.createTempDirectory("milo-storage-bench");
+        Path textFile = directory.resolve("generated.txt");
+        new TaskDataGenerator().writeTo(size, textFile);
+
+        String loadFile = directory.resolve("load." + format).toString();
+        Storage.convert(textFile.toString(), loadFile);
+        loadStorage = new Storage(loadFile);
+        saveStorage = new Storage(directory.resolve("save." + format).toString());
+        tasks = new TaskDataGenerator().generate(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public ArrayList<Task> load() throws MiloException {
+        return loadStorage.load();
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        saveStorage.compact(tasks);
+    }
+}
@@ -0,0 +1,107 @@
+package milo.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Random;
+
+import milo.task.Deadline;
+import milo.task.Event;
+import milo.task.Task;
+import milo.task.TaskList;
+import milo.task.Todo;
+
+/**
+ * Generates synthetic task lists for benchmarks.
+ * The same size and seed always produce the same tasks, so runs can be compared with each other.
+ */
+public class TaskDataGenerator {
+    static final LocalDate FIRST_DATE = LocalDate.of(2026, 1, 1);
+    static final int DATE_SPAN_DAYS = 365;
+
+    private static final String[] VERBS = {
+        "read", "return", "submit", "review", "buy", "call", "plan", "write", "fix", "prepare"
+    };
+    private static final String[] NOUNS = {
+        "book", "report", "groceries", "assignment", "slides", "meeting", "invoice", "essay", "bug", "trip"
+    };
+    private static final long SEED = 2103L;
+
+    private final Random random;
+
+    /**
+     * Constructs a generator with the default seed.
+     */
+    public TaskDataGenerator() {
+        this.random = new Random(SEED);
+    }
+
+    /**
+     * Generates a list of todos, deadlines and events in roughly equal proportions.
+     * About a third of the tasks are marked as done.
+     *
+     * @param size The number of tasks to generate.
+     * @return The generated tasks.
+     */
+    public ArrayList<Task> generate(int size) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(nextTask(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Generates a TaskList holding the given number of tasks.
+     *
+     * @param size The number of tasks to generate.
+     * @return The generated TaskList.
+     */
+    public TaskList generateTaskList(int size) {
+        return new TaskList(generate(size));
+    }
+
+    /**
+     * Writes the given number of tasks to a file in the storage text format.
+     *
+     * @param size The number of tasks to generate.
+     * @param file The file to write.
+     * @throws IOException If there is an error writing the file.
+     */
+    public void writeTo(int size, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < size; i++) {
+                writer.write(nextTask(i).toFileFormat());
+                writer.newLine();
+            }
+        }
+    }
+
+    private Task nextTask(int index) {
+        String description = VERBS[random.nextInt(VERBS.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)] + " " + index;
+        LocalDate date = FIRST_DATE.plusDays(random.nextInt(DATE_SPAN_DAYS));
+
+        Task task;
+        switch (index % 3) {
+            case 0:
+                task = new Todo(description);
+                break;
+            case 1:
+                task = new Deadline(description, date.toString());
+                break;
+            default:
+                task = new Event(description, date.toString(), date.plusDays(random.nextInt(5)).toString());
+                break;
+        }
+
+        if (random.nextInt(3) == 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+}
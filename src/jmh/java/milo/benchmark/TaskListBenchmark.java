@@ -0,0 +1,89 @@
+package milo.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import milo.task.Task;
+import milo.task.TaskList;
+
+/**
+ * Measures searching and sorting a TaskList.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ArrayList<Task> generated;
+    private TaskList tasks;
+    private LocalDate searchDate;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        generated = new TaskDataGenerator().generate(size);
+        tasks = new TaskList(new ArrayList<>(generated));
+        searchDate = TaskDataGenerator.FIRST_DATE.plusDays(TaskDataGenerator.DATE_SPAN_DAYS / 2);
+    }
+
+    /**
+     * Sorting mutates the list, so each sort starts again from a freshly shuffled copy.
+     */
+    @State(Scope.Thread)
+    public static class UnsortedList {
+        TaskList tasks;
+
+        @Setup(Level.Invocation)
+        public void shuffle(TaskListBenchmark benchmark) {
+            ArrayList<Task> copy = new ArrayList<>(benchmark.generated);
+            Collections.shuffle(copy, new Random(benchmark.size));
+            tasks = new TaskList(copy);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Task> findSingleKeyword() {
+        return tasks.findTasks("book");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findAllKeywords() {
+        return tasks.findTasks("return book");
+    }
+
+    @Benchmark
+    public ArrayList<Task> findOnDate() {
+        return tasks.findTasksOnDate(searchDate);
+    }
+
+    @Benchmark
+    public ArrayList<Task> findBetween() {
+        return tasks.findTasksBetween(searchDate, searchDate.plusDays(30));
+    }
+
+    @Benchmark
+    public TaskList sortAlphabetically(UnsortedList unsorted) {
+        unsorted.tasks.sortAlphabetically();
+        return unsorted.tasks;
+    }
+
+    @Benchmark
+    public TaskList sortChronologically(UnsortedList unsorted) {
+        unsorted.tasks.sortChronologically();
+        return unsorted.tasks;
+    }
+}
@@ -0,0 +1,41 @@
+package milo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import milo.task.TaskList;
+import milo.ui.Ui;
+
+/**
+ * Measures rendering the whole task list into a response string.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UiBenchmark {
+    @Param({"1000", "100000"})
+    public int size;
+
+    private TaskList tasks;
+    private Ui ui;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskDataGenerator().generateTaskList(size);
+        ui = new Ui();
+    }
+
+    @Benchmark
+    public String showTaskList() {
+        return ui.showTaskList(tasks);
+    }
+}
@@ -0,0 +1,590 @@
+package milo.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Stores tasks column by column instead of as one object per task, as an alternative to TaskList for very large lists.
+ * Each column is a primitive array indexed by the position of a task: its type as a byte, its dates as epoch days
+ * and its description as a range of one shared character arena, with the done flags kept in a bit set.
+ * Searching and sorting scan these arrays directly. A Task is only created when one is returned, and it is
+ * a copy that does not change with the list, so tasks must be updated through this class.
+ * It is not used by Milo itself: it lives beside the benchmarks, which measure it against TaskList.
+ */
+public final class ColumnarTaskList {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final int NO_DATE = Integer.MAX_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private byte[] types = new byte[MIN_CAPACITY];
+    private int[] ids = new int[MIN_CAPACITY];
+    private int[] startDays = new int[MIN_CAPACITY];
+    private int[] endDays = new int[MIN_CAPACITY];
+    private int[] descriptionOffsets = new int[MIN_CAPACITY];
+    private int[] descriptionLengths = new int[MIN_CAPACITY];
+    private BitSet done = new BitSet();
+    private char[] arena = new char[MIN_CAPACITY * 16];
+    private int arenaSize;
+    private int arenaGarbage;
+    private int size;
+    private long version;
+    private int nextId = 1;
+
+    /**
+     * Orders two rows of the columns.
+     */
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Constructs an empty ColumnarTaskList.
+     */
+    public ColumnarTaskList() {
+    }
+
+    /**
+     * Constructs a ColumnarTaskList holding the given tasks, numbered from 1 in the given order.
+     * The tasks themselves are not kept.
+     *
+     * @param tasks The tasks to initialize the list with.
+     */
+    public ColumnarTaskList(List<Task> tasks) {
+        assert tasks != null : "Initial task list should not be null";
+        ensureCapacity(tasks.size());
+        for (Task task : tasks) {
+            append(task);
+        }
+    }
+
+    /**
+     * Adds a copy of a task to the list.
+     *
+     * @param t The task to be added.
+     */
+    public void addTask(Task t) {
+        assert t != null : "Cannot add a null task to the list";
+        ensureCapacity(size + 1);
+        append(t);
+        version++;
+    }
+
+    /**
+     * Deletes a task from the list at the specified index.
+     *
+     * @param index The zero-based index of the task to be removed.
+     * @return The task that was removed.
+     */
+    public Task deleteTask(int index) {
+        assert index >= 0 && index < size : "Index out of bounds for deletion: " + index;
+        Task removed = view(index);
+        arenaGarbage += descriptionLengths[index];
+
+        int tailLength = size - index - 1;
+        System.arraycopy(types, index + 1, types, index, tailLength);
+        System.arraycopy(ids, index + 1, ids, index, tailLength);
+        System.arraycopy(startDays, index + 1, startDays, index, tailLength);
+        System.arraycopy(endDays, index + 1, endDays, index, tailLength);
+        System.arraycopy(descriptionOffsets, index + 1, descriptionOffsets, index, tailLength);
+        System.arraycopy(descriptionLengths, index + 1, descriptionLengths, index, tailLength);
+        BitSet doneTail = done.get(index + 1, size);
+        done.clear(index, size);
+        for (int i = doneTail.nextSetBit(0); i >= 0; i = doneTail.nextSetBit(i + 1)) {
+            done.set(index + i);
+        }
+        size--;
+
+        compactArenaIfSparse();
+        version++;
+        return removed;
+    }
+
+    /**
+     * Deletes the tasks at the specified indices, compacting the columns once for all of them.
+     *
+     * @param indices The zero-based indices of the tasks to be removed.
+     * @return The tasks that were removed, in list order.
+     */
+    public ArrayList<Task> deleteTasks(BitSet indices) {
+        assert indices.length() <= size : "Index out of bounds for deletion: " + (indices.length() - 1);
+        ArrayList<Task> removed = new ArrayList<>(indices.cardinality());
+        int kept = 0;
+        for (int row = 0; row < size; row++) {
+            if (indices.get(row)) {
+                removed.add(view(row));
+                arenaGarbage += descriptionLengths[row];
+            } else {
+                moveRow(row, kept++);
+            }
+        }
+        done.clear(kept, size);
+        size = kept;
+
+        compactArenaIfSparse();
+        version++;
+        return removed;
+    }
+
+    /**
+     * Marks the task at the specified index as done.
+     *
+     * @param index The zero-based index of the task to mark.
+     * @return The task that was marked.
+     */
+    public Task markTask(int index) {
+        assert index >= 0 && index < size : "Index out of bounds for update: " + index;
+        done.set(index);
+        version++;
+        return view(index);
+    }
+
+    /**
+     * Marks the task at the specified index as not done.
+     *
+     * @param index The zero-based index of the task to unmark.
+     * @return The task that was unmarked.
+     */
+    public Task unmarkTask(int index) {
+        assert index >= 0 && index < size : "Index out of bounds for update: " + index;
+        done.clear(index);
+        version++;
+        return view(index);
+    }
+
+    /**
+     * Marks the tasks at the specified indices as done or not done.
+     *
+     * @param indices The zero-based indices of the tasks to update.
+     * @param isDone True to mark the tasks as done, false to mark them as not done.
+     * @return The tasks that were updated, in list order.
+     */
+    public ArrayList<Task> setTasksDone(BitSet indices, boolean isDone) {
+        assert indices.length() <= size : "Index out of bounds for update: " + (indices.length() - 1);
+        if (isDone) {
+            done.or(indices);
+        } else {
+            done.andNot(indices);
+        }
+        version++;
+
+        ArrayList<Task> updated = new ArrayList<>(indices.cardinality());
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            updated.add(view(i));
+        }
+        return updated;
+    }
+
+    /**
+     * Returns the full list of tasks in display order.
+     *
+     * @return An ArrayList containing a copy of every task.
+     */
+    public ArrayList<Task> getTasks() {
+        ArrayList<Task> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            result.add(view(row));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of tasks in the list.
+     *
+     * @return The size of the task list.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the modification version of the list.
+     * The version increases whenever a task is added, deleted, marked, unmarked or the list is sorted.
+     *
+     * @return The current version of the list.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieves a task from the list at the specified index.
+     *
+     * @param index The zero-based index of the task to retrieve.
+     * @return A copy of the task at the specified index.
+     */
+    public Task getTask(int index) {
+        assert index >= 0 && index < size : "Index out of bounds for retrieval: " + index;
+        return view(index);
+    }
+
+    /**
+     * Retrieves a task by its ID. The IDs are scanned in O(n), as no index of them is kept.
+     *
+     * @param id The ID of the task to retrieve.
+     * @return A copy of the task with that ID, or null if there is none.
+     */
+    public Task getTaskById(int id) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) {
+                return view(row);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds tasks whose description contains every keyword in the query.
+     * A keyword matches any word in the description that starts with it, ignoring case.
+     *
+     * @param query The whitespace-separated keywords to search for.
+     * @return A list of tasks that match all of the keywords, in the order they were added.
+     */
+    public ArrayList<Task> findTasks(String query) {
+        assert query != null : "Search keyword should not be null";
+        return findByKeywords(KeywordIndex.tokenize(query), true);
+    }
+
+    /**
+     * Finds tasks whose description contains at least one keyword in the query.
+     * A keyword matches any word in the description that starts with it, ignoring case.
+     *
+     * @param query The whitespace-separated keywords to search for.
+     * @return A list of tasks that match any of the keywords, in the order they were added.
+     */
+    public ArrayList<Task> findAnyTasks(String query) {
+        assert query != null : "Search keyword should not be null";
+        return findByKeywords(KeywordIndex.tokenize(query), false);
+    }
+
+    /**
+     * Finds the deadlines due on the given date and the events in progress on it.
+     *
+     * @param date The date to search for.
+     * @return A list of tasks on that date, in the order they were added.
+     */
+    public ArrayList<Task> findTasksOnDate(LocalDate date) {
+        assert date != null : "Search date should not be null";
+        int day = toDay(date);
+        int[] matches = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            boolean isOnDay = types[row] == DEADLINE
+                    ? startDays[row] == day
+                    : types[row] == EVENT && startDays[row] <= day && endDays[row] >= day;
+            if (isOnDay) {
+                matches[count++] = row;
+            }
+        }
+        sortRows(matches, count, (a, b) -> Integer.compare(ids[a], ids[b]));
+        return views(matches, count);
+    }
+
+    /**
+     * Finds the deadlines due within an inclusive date range and the events overlapping it.
+     *
+     * @param from The first date of the range.
+     * @param to The last date of the range.
+     * @return A list of tasks in the range, ordered by due or start date.
+     */
+    public ArrayList<Task> findTasksBetween(LocalDate from, LocalDate to) {
+        assert from != null && to != null : "Search range should not be null";
+        assert !from.isAfter(to) : "Search range should not be reversed";
+        int fromDay = toDay(from);
+        int toDay = toDay(to);
+        int[] matches = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            boolean isInRange = types[row] == DEADLINE
+                    ? startDays[row] >= fromDay && startDays[row] <= toDay
+                    : types[row] == EVENT && startDays[row] <= toDay && endDays[row] >= fromDay;
+            if (isInRange) {
+                matches[count++] = row;
+            }
+        }
+
+        // Deadlines come before events starting on the same day, as they do in TaskList
+        sortRows(matches, count, (a, b) -> {
+            int byDay = Integer.compare(startDays[a], startDays[b]);
+            if (byDay != 0) {
+                return byDay;
+            }
+            int byType = Byte.compare(types[a], types[b]);
+            return byType != 0 ? byType : Integer.compare(ids[a], ids[b]);
+        });
+        return views(matches, count);
+    }
+
+    /**
+     * Sorts the tasks in the list alphabetically by their description, ignoring case.
+     * Tasks with the same description stay in the order they were added.
+     */
+    public void sortAlphabetically() {
+        sortBy((a, b) -> {
+            int byName = compareDescriptions(a, b);
+            return byName != 0 ? byName : Integer.compare(ids[a], ids[b]);
+        });
+    }
+
+    /**
+     * Sorts the tasks chronologically by date.
+     * Tasks without dates (Todos) are placed at the end.
+     * Tasks on the same date stay in the order they were added.
+     */
+    public void sortChronologically() {
+        sortBy((a, b) -> {
+            int byDay = Integer.compare(startDays[a], startDays[b]);
+            return byDay != 0 ? byDay : Integer.compare(ids[a], ids[b]);
+        });
+    }
+
+    private void append(Task task) {
+        int row = size;
+        if (task instanceof Deadline) {
+            types[row] = DEADLINE;
+            startDays[row] = toDay(((Deadline) task).getBy());
+            endDays[row] = startDays[row];
+        } else if (task instanceof Event) {
+            types[row] = EVENT;
+            startDays[row] = toDay(((Event) task).getFrom());
+            endDays[row] = toDay(((Event) task).getTo());
+        } else {
+            types[row] = TODO;
+            startDays[row] = NO_DATE;
+            endDays[row] = NO_DATE;
+        }
+        ids[row] = nextId++;
+        done.set(row, task.isDone());
+        appendDescription(row, task.getDescription());
+        size++;
+    }
+
+    private void appendDescription(int row, String description) {
+        int length = description.length();
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaSize + length, arena.length * 2));
+        }
+        description.getChars(0, length, arena, arenaSize);
+        descriptionOffsets[row] = arenaSize;
+        descriptionLengths[row] = length;
+        arenaSize += length;
+    }
+
+    /**
+     * Copies the descriptions still in use to a new arena once most of the current one is taken by deleted tasks.
+     */
+    private void compactArenaIfSparse() {
+        if (arenaGarbage <= arenaSize / 2) {
+            return;
+        }
+        char[] compacted = new char[Math.max(MIN_CAPACITY * 16, (arenaSize - arenaGarbage) * 2)];
+        int compactedSize = 0;
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(arena, descriptionOffsets[row], compacted, compactedSize, descriptionLengths[row]);
+            descriptionOffsets[row] = compactedSize;
+            compactedSize += descriptionLengths[row];
+        }
+        arena = compacted;
+        arenaSize = compactedSize;
+        arenaGarbage = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, types.length * 2);
+        types = Arrays.copyOf(types, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        startDays = Arrays.copyOf(startDays, newCapacity);
+        endDays = Arrays.copyOf(endDays, newCapacity);
+        descriptionOffsets = Arrays.copyOf(descriptionOffsets, newCapacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, newCapacity);
+    }
+
+    /**
+     * Moves a row to an earlier position, overwriting the row there.
+     */
+    private void moveRow(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        types[to] = types[from];
+        ids[to] = ids[from];
+        startDays[to] = startDays[from];
+        endDays[to] = endDays[from];
+        descriptionOffsets[to] = descriptionOffsets[from];
+        descriptionLengths[to] = descriptionLengths[from];
+        done.set(to, done.get(from));
+    }
+
+    /**
+     * Reorders every column so that the rows follow the given order.
+     */
+    private void sortBy(RowOrder order) {
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+        sortRows(rows, size, order);
+
+        byte[] sortedTypes = new byte[types.length];
+        int[] sortedIds = new int[ids.length];
+        int[] sortedStartDays = new int[startDays.length];
+        int[] sortedEndDays = new int[endDays.length];
+        int[] sortedOffsets = new int[descriptionOffsets.length];
+        int[] sortedLengths = new int[descriptionLengths.length];
+        BitSet sortedDone = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            int row = rows[i];
+            sortedTypes[i] = types[row];
+            sortedIds[i] = ids[row];
+            sortedStartDays[i] = startDays[row];
+            sortedEndDays[i] = endDays[row];
+            sortedOffsets[i] = descriptionOffsets[row];
+            sortedLengths[i] = descriptionLengths[row];
+            sortedDone.set(i, done.get(row));
+        }
+        types = sortedTypes;
+        ids = sortedIds;
+        startDays = sortedStartDays;
+        endDays = sortedEndDays;
+        descriptionOffsets = sortedOffsets;
+        descriptionLengths = sortedLengths;
+        done = sortedDone;
+        version++;
+    }
+
+    private ArrayList<Task> findByKeywords(List<String> keywords, boolean isAllRequired) {
+        if (keywords.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        boolean[] isFound = new boolean[keywords.size()];
+        int[] matches = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            Arrays.fill(isFound, false);
+            int foundCount = markFoundKeywords(row, keywords, isFound);
+            if (isAllRequired ? foundCount == keywords.size() : foundCount > 0) {
+                matches[count++] = row;
+            }
+        }
+        sortRows(matches, count, (a, b) -> Integer.compare(ids[a], ids[b]));
+        return views(matches, count);
+    }
+
+    /**
+     * Flags every keyword that is a prefix of some word in the description of a row.
+     * Words are split the same way as KeywordIndex.tokenize, and keywords are expected in lower case.
+     *
+     * @return The number of keywords found.
+     */
+    private int markFoundKeywords(int row, List<String> keywords, boolean[] isFound) {
+        int foundCount = 0;
+        int end = descriptionOffsets[row] + descriptionLengths[row];
+        int wordStart = -1;
+        for (int i = descriptionOffsets[row]; i <= end; i++) {
+            boolean isWordChar = i < end && Character.isLetterOrDigit(arena[i]);
+            if (isWordChar && wordStart < 0) {
+                wordStart = i;
+            } else if (!isWordChar && wordStart >= 0) {
+                for (int k = 0; k < keywords.size(); k++) {
+                    if (!isFound[k] && isPrefixOf(keywords.get(k), wordStart, i)) {
+                        isFound[k] = true;
+                        foundCount++;
+                    }
+                }
+                wordStart = -1;
+            }
+        }
+        return foundCount;
+    }
+
+    private boolean isPrefixOf(String keyword, int wordStart, int wordEnd) {
+        if (keyword.length() > wordEnd - wordStart) {
+            return false;
+        }
+        for (int k = 0; k < keyword.length(); k++) {
+            if (Character.toLowerCase(arena[wordStart + k]) != keyword.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compareDescriptions(int a, int b) {
+        int offsetA = descriptionOffsets[a];
+        int offsetB = descriptionOffsets[b];
+        int length = Math.min(descriptionLengths[a], descriptionLengths[b]);
+        for (int k = 0; k < length; k++) {
+            char charA = Character.toLowerCase(arena[offsetA + k]);
+            char charB = Character.toLowerCase(arena[offsetB + k]);
+            if (charA != charB) {
+                return charA - charB;
+            }
+        }
+        return descriptionLengths[a] - descriptionLengths[b];
+    }
+
+    /**
+     * Sorts the first count rows with a bottom-up merge sort, so no row number is ever boxed.
+     */
+    private static void sortRows(int[] rows, int count, RowOrder order) {
+        int[] buffer = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, count);
+                if (order.compare(rows[middle - 1], rows[middle]) <= 0) {
+                    // The two runs are already in order
+                    continue;
+                }
+                System.arraycopy(rows, low, buffer, low, high - low);
+                int left = low;
+                int right = middle;
+                for (int k = low; k < high; k++) {
+                    boolean isLeftNext = left < middle
+                            && (right >= high || order.compare(buffer[left], buffer[right]) <= 0);
+                    rows[k] = isLeftNext ? buffer[left++] : buffer[right++];
+                }
+            }
+        }
+    }
+
+    private ArrayList<Task> views(int[] rows, int count) {
+        ArrayList<Task> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(view(rows[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a task holding the current values of a row.
+     */
+    private Task view(int row) {
+        String description = new String(arena, descriptionOffsets[row], descriptionLengths[row]);
+        Task task;
+        if (types[row] == DEADLINE) {
+            task = new Deadline(description, LocalDate.ofEpochDay(startDays[row]));
+        } else if (types[row] == EVENT) {
+            task = new Event(description, LocalDate.ofEpochDay(startDays[row]), LocalDate.ofEpochDay(endDays[row]));
+        } else {
+            task = new Todo(description);
+        }
+        if (done.get(row)) {
+            task.markAsDone();
+        }
+        task.setId(ids[row]);
+        return task;
+    }
+
+    private static int toDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
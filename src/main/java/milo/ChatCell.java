@@ -0,0 +1,44 @@
+package milo;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+import milo.ui.ChatMessage;
+
+/**
+ * A list cell that shows a chat message in a {@link DialogBox}.
+ * The list view only creates enough cells to fill the visible area and refills them while
+ * scrolling, so the dialog box is loaded once per cell rather than once per message.
+ */
+public class ChatCell extends ListCell<ChatMessage> {
+    private static final double SCROLL_BAR_ALLOWANCE = 20.0;
+
+    private final Image userImage;
+    private final Image miloImage;
+    private final DialogBox dialogBox = new DialogBox();
+
+    /**
+     * Constructs a ChatCell.
+     *
+     * @param userImage The picture shown next to the user's messages.
+     * @param miloImage The picture shown next to Milo's messages.
+     */
+    public ChatCell(Image userImage, Image miloImage) {
+        this.userImage = userImage;
+        this.miloImage = miloImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        dialogBox.show(message.getText(), message.isFromMilo() ? miloImage : userImage, message.isFromMilo());
+        setGraphic(dialogBox);
+    }
+}
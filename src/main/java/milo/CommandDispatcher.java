@@ -0,0 +1,61 @@
+package milo;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import milo.ui.ChatMessage;
+
+/**
+ * Runs user commands on a single background thread so that the window stays responsive.
+ * Commands are executed one at a time in the order they were submitted, and each response
+ * is handed to its callback on the given callback executor, such as the JavaFX Application Thread.
+ */
+public class CommandDispatcher {
+    private final Milo milo;
+    private final Executor callbackExecutor;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "milo-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a CommandDispatcher.
+     *
+     * @param milo The application that executes the commands.
+     * @param callbackExecutor The executor the response callbacks are run on.
+     */
+    public CommandDispatcher(Milo milo, Executor callbackExecutor) {
+        this.milo = milo;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Queues a command behind every command submitted before it.
+     *
+     * @param input The raw user input.
+     * @param onResponse The callback receiving Milo's response, which may span several messages.
+     */
+    public void submit(String input, Consumer<List<ChatMessage>> onResponse) {
+        worker.execute(() -> {
+            List<ChatMessage> response;
+            try {
+                response = milo.getResponseMessages(input);
+            } catch (RuntimeException e) {
+                response = List.of(new ChatMessage("OOPS!!! Something went wrong: " + e.getMessage(), true));
+            }
+            List<ChatMessage> result = response;
+            callbackExecutor.execute(() -> onResponse.accept(result));
+        });
+    }
+
+    /**
+     * Stops accepting commands once the ones already submitted have run.
+     */
+    public void shutdown() {
+        worker.shutdown();
+    }
+}
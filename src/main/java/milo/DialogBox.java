@@ -1,14 +1,10 @@
 package milo;
 
 import java.io.IOException;
-import java.util.Collections;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -17,6 +13,7 @@ import javafx.scene.layout.HBox;
 /**
  * A custom control using FXML to represent a dialog box.
  * This represents a chat bubble containing the speaker's text and profile picture.
+ * A dialog box can be refilled with another message, so chat cells reuse a single instance.
  */
 public class DialogBox extends HBox {
     @FXML
@@ -24,7 +21,10 @@ public class DialogBox extends HBox {
     @FXML
     private ImageView displayPicture;
 
-    private DialogBox(String text, Image img) {
+    /**
+     * Constructs an empty dialog box to be filled in with {@link #show(String, Image, boolean)}.
+     */
+    public DialogBox() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
             fxmlLoader.setController(this);
@@ -33,28 +33,24 @@ public class DialogBox extends HBox {
         } catch (IOException e) {
             e.printStackTrace();
         }
-
-        dialog.setText(text);
-        displayPicture.setImage(img);
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Displays a message, with the picture on the left for Milo and on the right for the user.
+     *
+     * @param text The text of the message.
+     * @param img The picture of the speaker.
+     * @param isFromMilo True if Milo sent the message.
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
-    }
-
-    public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
-    }
-
-    public static DialogBox getMiloDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        return db;
+    public void show(String text, Image img, boolean isFromMilo) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (isFromMilo) {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+        } else {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+        }
     }
-}
\ No newline at end of file
+}
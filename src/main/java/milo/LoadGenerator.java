@@ -0,0 +1,172 @@
+package milo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drives a running MiloServer from several concurrent clients with a mix of reads and writes,
+ * then reports the throughput and the latency percentiles of the requests.
+ * Of the timed commands, about 60% only read the list and 40% change it.
+ */
+public class LoadGenerator {
+    private static final int DEFAULT_CLIENTS = 8;
+    private static final int DEFAULT_REQUESTS_PER_CLIENT = 5_000;
+    private static final long SEED = 2103L;
+
+    private final String host;
+    private final int port;
+    private final int clientCount;
+    private final int requestsPerClient;
+
+    /**
+     * Summarizes the latencies measured during a run.
+     */
+    public static class Report {
+        private final long[] latenciesNanos;
+        private final long elapsedNanos;
+
+        Report(long[] latenciesNanos, long elapsedNanos) {
+            this.latenciesNanos = latenciesNanos;
+            this.elapsedNanos = elapsedNanos;
+            Arrays.sort(latenciesNanos);
+        }
+
+        public int getRequestCount() {
+            return latenciesNanos.length;
+        }
+
+        /**
+         * Returns the number of requests completed per second across all clients.
+         *
+         * @return The throughput of the run.
+         */
+        public double getThroughput() {
+            return latenciesNanos.length * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Returns the latency that the given fraction of requests did not exceed.
+         *
+         * @param fraction The fraction of requests, between 0 and 1.
+         * @return The latency in microseconds.
+         */
+        public long getPercentileMicros(double fraction) {
+            int index = (int) Math.ceil(fraction * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, index)] / 1_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests in %d ms: %.0f requests/s, p50 %d us, p99 %d us, max %d us",
+                    latenciesNanos.length, elapsedNanos / 1_000_000, getThroughput(), getPercentileMicros(0.5),
+                    getPercentileMicros(0.99), getPercentileMicros(1));
+        }
+    }
+
+    /**
+     * Constructs a LoadGenerator.
+     *
+     * @param host The host the server runs on.
+     * @param port The port the server listens on.
+     * @param clientCount The number of clients sending commands at the same time.
+     * @param requestsPerClient The number of timed commands each client sends.
+     */
+    public LoadGenerator(String host, int port, int clientCount, int requestsPerClient) {
+        assert clientCount > 0 && requestsPerClient > 0 : "There should be some load to generate";
+        this.host = host;
+        this.port = port;
+        this.clientCount = clientCount;
+        this.requestsPerClient = requestsPerClient;
+    }
+
+    /**
+     * Runs every client to completion.
+     *
+     * @return The latencies measured across all clients.
+     * @throws IOException If a client cannot connect or loses its connection.
+     * @throws InterruptedException If interrupted while waiting for the clients.
+     */
+    public Report run() throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(clientCount);
+        try {
+            List<Callable<long[]>> clients = new ArrayList<>();
+            for (int i = 0; i < clientCount; i++) {
+                int clientNumber = i;
+                clients.add(() -> runClient(clientNumber));
+            }
+
+            long start = System.nanoTime();
+            List<Future<long[]>> results = pool.invokeAll(clients);
+            long elapsed = System.nanoTime() - start;
+
+            long[] latencies = new long[clientCount * requestsPerClient];
+            for (int i = 0; i < clientCount; i++) {
+                System.arraycopy(results.get(i).get(), 0, latencies, i * requestsPerClient, requestsPerClient);
+            }
+            return new Report(latencies, elapsed);
+        } catch (ExecutionException e) {
+            throw new IOException("A client failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long[] runClient(int clientNumber) throws IOException {
+        Random random = new Random(SEED + clientNumber);
+        long[] latencies = new long[requestsPerClient];
+        try (MiloClient client = new MiloClient(host, port)) {
+            // Make sure there is always a first task to mark
+            client.send("todo load " + clientNumber);
+            for (int i = 0; i < requestsPerClient; i++) {
+                String command = nextCommand(random, clientNumber, i);
+                long start = System.nanoTime();
+                client.send(command);
+                latencies[i] = System.nanoTime() - start;
+            }
+        }
+        return latencies;
+    }
+
+    private static String nextCommand(Random random, int clientNumber, int requestNumber) {
+        int roll = random.nextInt(100);
+        if (roll < 30) {
+            return "list 1";
+        } else if (roll < 50) {
+            return "find load " + (requestNumber % 10);
+        } else if (roll < 60) {
+            return "find-date 2026-06-" + (10 + random.nextInt(20));
+        } else if (roll < 85) {
+            return "todo load " + clientNumber + " " + requestNumber;
+        } else if (roll < 95) {
+            return "mark 1";
+        } else {
+            return "deadline load " + requestNumber + " /by 2026-06-" + (10 + random.nextInt(20));
+        }
+    }
+
+    /**
+     * Runs the load against a local server and prints the report.
+     *
+     * @param args The optional port, number of clients and number of requests per client.
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : MiloServer.DEFAULT_PORT;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_REQUESTS_PER_CLIENT;
+        try {
+            System.out.println(new LoadGenerator("localhost", port, clients, requests).run());
+        } catch (IOException e) {
+            System.err.println("Load generation failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
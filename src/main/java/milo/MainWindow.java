@@ -1,52 +1,62 @@
 package milo;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
+import milo.ui.ChatHistory;
+import milo.ui.ChatMessage;
 
 /**
  * Controller for MainWindow. Provides the layout for the other controls.
  */
 public class MainWindow extends AnchorPane {
+    private static final int HISTORY_CAPACITY = 400;
+    private static final String HISTORY_ARCHIVE_PATH = "./data/chat-history.txt";
+    private static final String PENDING_TEXT = "...";
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> chatView;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
 
-    private Milo milo;
+    private CommandDispatcher dispatcher;
+    private final ObservableList<ChatMessage> messages = FXCollections.observableArrayList();
+    private final ChatHistory history = new ChatHistory(messages, HISTORY_CAPACITY, Paths.get(HISTORY_ARCHIVE_PATH));
 
     private final Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private final Image miloImage = new Image(this.getClass().getResourceAsStream("/images/DaMilo.png"));
 
     @FXML
     public void initialize() {
-        // Automatically scroll to the bottom when the height of the container increases
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        chatView.setItems(messages);
+        chatView.setCellFactory(view -> new ChatCell(userImage, miloImage));
 
         // Show initial welcome message
-        dialogContainer.getChildren().add(
-                DialogBox.getMiloDialog("Hello! I'm Milo. How can I help you today?", miloImage)
-        );
+        addMessage(new ChatMessage("Hello! I'm Milo. How can I help you today?", true));
     }
 
     public void setMilo(Milo m) {
-        milo = m;
+        dispatcher = new CommandDispatcher(m, Platform::runLater);
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Milo's reply.
-     * Clears the user input after processing.
+     * Echoes the user input in the chat and queues it for execution in the background.
+     * A pending message stands in for Milo's reply until the command has run.
+     * Clears the user input straight away so that further commands can be typed.
      */
     @FXML
     private void handleUserInput() {
@@ -55,25 +65,47 @@ public class MainWindow extends AnchorPane {
             return;
         }
 
-        String response = milo.getResponse(input);
-
         /* * Optional Enhancement from Part 5:
          * If your Milo class has a getCommandType() method, you can pass it here
          * to change the color of the chat bubble.
          */
 
-
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getMiloDialog(response, miloImage)
-        );
+        ChatMessage pending = new ChatMessage(PENDING_TEXT, true);
+        addMessage(new ChatMessage(input, false));
+        addMessage(pending);
+        dispatcher.submit(input, response -> showResponse(input, pending, response));
 
         userInput.clear();
+    }
+
+    /**
+     * Replaces the pending message of a command with Milo's reply. Runs on the JavaFX Application Thread.
+     * Pages of a long reply are only rendered once they are scrolled into view.
+     */
+    private void showResponse(String input, ChatMessage pending, List<ChatMessage> response) {
+        try {
+            history.replace(pending, response);
+        } catch (IOException e) {
+            System.err.println("Failed to archive chat history: " + e.getMessage());
+        }
 
         if (input.equalsIgnoreCase("bye")) {
+            dispatcher.shutdown();
             PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
             delay.setOnFinished(event -> Platform.exit());
             delay.play();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Appends a message to the chat and scrolls down to it.
+     */
+    private void addMessage(ChatMessage message) {
+        try {
+            history.add(message);
+        } catch (IOException e) {
+            System.err.println("Failed to archive chat history: " + e.getMessage());
+        }
+        chatView.scrollTo(messages.size() - 1);
+    }
+}
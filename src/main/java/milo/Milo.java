@@ -1,19 +1,50 @@
 package milo;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import milo.command.Command;
+import milo.task.Task;
+import milo.ui.ChatMessage;
 import milo.ui.Ui;
+import milo.storage.FsyncPolicy;
 import milo.storage.Storage;
+import milo.storage.WorkspaceManager;
+import milo.storage.WorkspaceManager.Workspace;
 import milo.task.TaskList;
 import milo.parser.Parser;
 import milo.exception.MiloException;
+import milo.metrics.Metrics;
 
 /**
  * Acts as the entry point and controller for the Milo task management application.
+ * Commands apply to the active task list, which 'use NAME' switches between.
  */
 public class Milo {
-    private Storage storage;
-    private TaskList tasks;
+    private static final long SAVE_DELAY_MILLIS = 200;
+    private static final int CHECKPOINT_INTERVAL = 10_000;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_CHAT_PAGES = 20;
+    private static final String WORKSPACE_DIRECTORY = "lists";
+    private static final long WORKSPACE_TASK_BUDGET = 500_000;
+    private static final int MAX_LOADED_WORKSPACES = 8;
+    /** The system property naming a file to record every command to, for {@link TraceReplayer}. */
+    private static final String TRACE_PROPERTY = "milo.trace";
+
+    private WorkspaceManager workspaces;
     private Ui ui;
+    private volatile TraceRecorder trace;
 
     /**
      * Default constructor for JavaFX initialization.
@@ -24,18 +55,73 @@ public class Milo {
 
     /**
      * Initializes the Milo application with a file path for data storage.
+     * The file holds the default task list, named after it; other lists are kept in a directory beside it.
      *
      * @param filePath The path to the file where tasks are saved.
      */
     public Milo(String filePath) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        Path defaultPath = Paths.get(filePath);
+        Path dataDirectory = defaultPath.toAbsolutePath().getParent();
+        String fileName = defaultPath.getFileName().toString();
+        String defaultName = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+        workspaces = new WorkspaceManager(defaultName, defaultPath, dataDirectory.resolve(WORKSPACE_DIRECTORY),
+                WORKSPACE_TASK_BUDGET, MAX_LOADED_WORKSPACES, path -> {
+                    Storage storage = new Storage(path.toString(), true);
+                    storage.enableWriteBehind(SAVE_DELAY_MILLIS, FsyncPolicy.EVERY_COMMIT);
+                    return storage;
+                });
+        try {
+            Workspace workspace = workspaces.use(defaultName);
+            if (workspace.getLoadError() != null) {
+                // In a GUI, we might want to return this error to the user instead
+                System.err.println("Failed to load tasks: " + workspace.getLoadError());
+            } else if (workspace.getStorage().getLastLoadReport().hasDataLoss()) {
+                System.err.println("Some saved tasks were damaged and skipped. "
+                        + workspace.getStorage().getLastLoadReport());
+            }
+        } catch (MiloException | IOException e) {
+            throw new AssertionError("The default list needs no name check and nothing can be evicted yet", e);
+        }
+
+        String tracePath = System.getProperty(TRACE_PROPERTY);
+        if (tracePath != null) {
+            try {
+                startTrace(Paths.get(tracePath));
+            } catch (IOException e) {
+                System.err.println("Failed to start recording commands: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records every command received from now on, with the time it arrived, to a trace file.
+     * Milo also starts recording on its own when the system property {@value #TRACE_PROPERTY} names a file.
+     *
+     * @param tracePath The path of the trace file, which is replaced if it exists.
+     * @throws IOException If the trace file cannot be created.
+     */
+    public void startTrace(Path tracePath) throws IOException {
+        TraceRecorder previous = trace;
+        trace = new TraceRecorder(tracePath);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Saves every loaded task list, waits for the saves to reach the disk and stops recording commands.
+     * Milo must not be used afterwards.
+     *
+     * @throws IOException If a list could not be saved or the trace could not be closed.
+     */
+    public void close() throws IOException {
         try {
-            tasks = new TaskList(storage.load());
-        } catch (MiloException e) {
-            // In a GUI, we might want to return this error to the user instead
-            System.err.println("Failed to load tasks: " + e.getMessage());
-            tasks = new TaskList();
+            workspaces.close();
+        } finally {
+            if (trace != null) {
+                trace.close();
+            }
         }
     }
 
@@ -46,23 +132,176 @@ public class Milo {
      * @return Milo's response as a String.
      */
     public String getResponse(String input) {
+        recordTrace(input);
         try {
-            return Parser.parse(input, tasks, ui, storage);
+            String[] words = input.split(" ", 2);
+            if (Command.fromString(words[0]) == Command.USE) {
+                return useWorkspace(words);
+            }
+            Workspace workspace = workspaces.getActive();
+            return Parser.parse(input, workspace.getTasks(), ui, workspace.getStorage());
         } catch (MiloException | IOException e) {
             return ui.showError(e.getMessage());
         }
     }
 
     /**
-     * Runs the main program loop for terminal use.
+     * Switches to the named task list, creating it if it does not exist yet.
+     */
+    private String useWorkspace(String[] words) throws MiloException, IOException {
+        if (words.length < 2 || words[1].trim().isEmpty()) {
+            throw new MiloException("Please specify the name of a list, e.g. 'use projectA'.");
+        }
+        Workspace workspace = workspaces.use(words[1].trim());
+        if (workspace.getLoadError() != null) {
+            return ui.showError("Failed to load the list '" + workspace.getName() + "': "
+                    + workspace.getLoadError());
+        }
+        return ui.showWorkspaceChange(workspace.getName(), workspace.getTasks().getSize());
+    }
+
+    /**
+     * Generates the chat messages answering the user's input.
+     * A full list too long for one message is split into pages, each rendered only when it is first shown.
+     * At most {@value #MAX_CHAT_PAGES} pages are returned; the rest can be requested with 'list PAGE'.
+     *
+     * @param input The raw user input from the GUI.
+     * @return Milo's response as one or more messages.
+     */
+    public List<ChatMessage> getResponseMessages(String input) {
+        TaskList tasks = workspaces.getActive().getTasks();
+        if (!Parser.isFullListCommand(input) || tasks.getSize() <= Ui.DEFAULT_PAGE_SIZE) {
+            return List.of(new ChatMessage(getResponse(input), true));
+        }
+
+        recordTrace(input);
+        // The pages are rendered later on another thread, so they are taken from an immutable snapshot
+        List<Task> snapshot = tasks.snapshot();
+        int pageCount = Ui.getPageCount(snapshot.size(), Ui.DEFAULT_PAGE_SIZE);
+        int shownPages = Math.min(pageCount, MAX_CHAT_PAGES);
+        List<ChatMessage> messages = new ArrayList<>(shownPages + 1);
+        for (int page = 1; page <= shownPages; page++) {
+            int pageNumber = page;
+            messages.add(new ChatMessage(() -> ui.showTaskPage(snapshot, pageNumber, Ui.DEFAULT_PAGE_SIZE), true));
+        }
+        if (pageCount > shownPages) {
+            messages.add(new ChatMessage(" Use 'list PAGE' to see pages " + (shownPages + 1) + " to "
+                    + pageCount + ".", true));
+        }
+        return messages;
+    }
+
+    /**
+     * Runs the main program loop for terminal use, reading commands from standard input.
      */
     public void run() {
-        System.out.println(ui.showWelcome());
-        // Note: Terminal loop won't work perfectly with the new String-return Parser
-        // but this remains for structural integrity.
+        try {
+            run(new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                    new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to run commands: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executes one command per input line until "bye" or the end of the input, without a GUI.
+     * Replies are written through a buffered writer, which is flushed whenever no further command is
+     * waiting, so someone typing commands sees each reply at once while piped input is answered in bulk.
+     * Instead of being saved after every command, the tasks are saved every
+     * {@value #CHECKPOINT_INTERVAL} commands and once more at the end.
+     *
+     * @param input The source of the commands.
+     * @param output The destination of Milo's replies. It is flushed but not closed.
+     * @throws IOException If there is an error reading the input, writing the output or saving the tasks.
+     */
+    public void run(Reader input, Writer output) throws IOException {
+        BufferedReader reader = new BufferedReader(input, IO_BUFFER_SIZE);
+        BufferedWriter writer = new BufferedWriter(output, IO_BUFFER_SIZE);
+        writeReply(writer, ui.showWelcome());
+
+        workspaces.beginBatch();
+        try {
+            long commandCount = 0;
+            String line;
+            while ((line = readCommand(reader, writer)) != null) {
+                if (Parser.isFullListCommand(line)) {
+                    recordTrace(line);
+                    writeTaskList(writer);
+                } else {
+                    writeReply(writer, getResponse(line));
+                }
+                if (Command.fromString(line.split(" ", 2)[0]) == Command.BYE) {
+                    break;
+                }
+                if (++commandCount % CHECKPOINT_INTERVAL == 0) {
+                    workspaces.checkpoint();
+                }
+            }
+        } finally {
+            writer.flush();
+            workspaces.endBatch();
+        }
+    }
+
+    /**
+     * Reads the next command, first flushing the replies written so far if the command has not arrived yet.
+     */
+    private static String readCommand(BufferedReader reader, Writer writer) throws IOException {
+        if (!reader.ready()) {
+            writer.flush();
+        }
+        return reader.readLine();
+    }
+
+    private void recordTrace(String input) {
+        if (trace == null) {
+            return;
+        }
+        try {
+            trace.record(input);
+        } catch (IOException e) {
+            System.err.println("Failed to record the command: " + e.getMessage());
+        }
+    }
+
+    private void writeTaskList(Writer writer) throws IOException {
+        // The list is streamed to the writer instead of being built into one string first
+        long startNanos = System.nanoTime();
+        writer.write(ui.showLine());
+        writer.write(System.lineSeparator());
+        ui.writeTaskList(workspaces.getActive().getTasks().snapshot(), writer);
+        Metrics.global().recordCommand(Command.LIST, 0, System.nanoTime() - startNanos, 0, false);
+        writer.write(System.lineSeparator());
+        writer.write(ui.showLine());
+        writer.write(System.lineSeparator());
     }
 
+    private void writeReply(Writer writer, String reply) throws IOException {
+        writer.write(ui.showLine());
+        writer.write(System.lineSeparator());
+        writer.write(reply);
+        writer.write(System.lineSeparator());
+        writer.write(ui.showLine());
+        writer.write(System.lineSeparator());
+    }
+
+    /**
+     * Starts Milo in the terminal. Commands are read from the file given as the first argument,
+     * or from standard input if there is none.
+     *
+     * @param args The optional path of a file of commands.
+     */
     public static void main(String[] args) {
-        new Milo("./data/milo.txt").run();
+        Milo milo = new Milo("./data/milo.txt");
+        if (args.length == 0) {
+            milo.run();
+            return;
+        }
+
+        try (Reader input = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            milo.run(input, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to run commands from " + args[0] + ": " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package milo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Connects to a MiloServer and sends it commands one at a time.
+ */
+public class MiloClient implements Closeable {
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+
+    /**
+     * Opens a connection to a MiloServer.
+     *
+     * @param host The host the server runs on.
+     * @param port The port the server listens on.
+     * @throws IOException If the connection cannot be made.
+     */
+    public MiloClient(String host, int port) throws IOException {
+        socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends a command and waits for Milo's reply.
+     *
+     * @param command The command, which must fit on one line.
+     * @return The reply, with its lines separated by "\n".
+     * @throws IOException If the connection fails or is closed before the reply is complete.
+     */
+    public String send(String command) throws IOException {
+        assert command.indexOf('\n') < 0 : "Command should fit on one line";
+        writer.write(command);
+        writer.write('\n');
+        writer.flush();
+
+        StringBuilder reply = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.equals(MiloServer.END_OF_REPLY)) {
+                return reply.toString();
+            }
+            if (reply.length() > 0) {
+                reply.append('\n');
+            }
+            // Undo the extra "." the server puts in front of reply lines starting with one
+            reply.append(line.startsWith(".") ? line.substring(1) : line);
+        }
+        throw new EOFException("The server closed the connection before replying.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,202 @@
+package milo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import milo.command.Command;
+
+/**
+ * Serves one shared Milo to many local clients over TCP with a line protocol.
+ * A client sends one command per line and receives Milo's reply followed by a line holding only
+ * {@value #END_OF_REPLY}. Reply lines starting with "." are sent with an extra "." in front.
+ *
+ * <p>Every connection is served by its own thread. Commands that only read the task list run on that
+ * thread, in parallel with each other. Commands that change the list are handed to a single writer
+ * thread, so they are applied and saved one at a time in the order they arrive.
+ * Every client works on the default list: 'use' is refused, since switching the list Milo works on
+ * would switch it for every other client too.
+ */
+public class MiloServer implements Closeable {
+    /** The port the server listens on when none is given. */
+    public static final int DEFAULT_PORT = 4070;
+    /** The line that ends every reply. */
+    public static final String END_OF_REPLY = ".";
+
+    private static final int BACKLOG = 128;
+    private static final long CONNECTION_STACK_SIZE = 256 * 1024;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Milo milo;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "milo-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Connection threads mostly wait on their sockets, so they get small stacks
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(null, runnable, "milo-connection-" + connectionCount.incrementAndGet(),
+                CONNECTION_STACK_SIZE);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a MiloServer listening on the loopback address.
+     *
+     * @param milo The application shared by every client.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be opened.
+     */
+    public MiloServer(Milo milo, int port) throws IOException {
+        this.milo = milo;
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The local port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections on a background thread.
+     */
+    public void start() {
+        Thread acceptor = new Thread(this::serve, "milo-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Accepts connections on the calling thread until the server is closed.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                openSockets.add(socket);
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Failed to accept a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns Milo's reply to a command, running it on the writer thread if it changes the task list.
+     *
+     * @param input The raw command.
+     * @return Milo's reply.
+     */
+    String respond(String input) {
+        Command command = Command.fromString(input.split(" ", 2)[0]);
+        if (command == Command.USE) {
+            return "OOPS!!! Every client shares the same list, so it cannot be switched over the server.";
+        }
+        try {
+            if (command.isReadOnly()) {
+                return milo.getResponse(input);
+            }
+            return writer.submit(() -> milo.getResponse(input)).get();
+        } catch (ExecutionException e) {
+            return "OOPS!!! Something went wrong: " + e.getCause().getMessage();
+        } catch (RuntimeException e) {
+            return "OOPS!!! Something went wrong: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "OOPS!!! The server is shutting down.";
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                writeReply(out, respond(line));
+                if (Command.fromString(line.split(" ", 2)[0]) == Command.BYE) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // The client went away; there is nobody left to reply to
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private static void writeReply(BufferedWriter out, String reply) throws IOException {
+        for (String line : reply.split("\n", -1)) {
+            if (line.startsWith(".")) {
+                out.write('.');
+            }
+            out.write(line);
+            out.write('\n');
+        }
+        out.write(END_OF_REPLY);
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and waits for queued changes to be applied.
+     *
+     * @throws IOException If the listening socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        connections.shutdown();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts a server for the tasks in ./data/milo.txt and serves clients until the process is stopped.
+     *
+     * @param args The optional port to listen on.
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (MiloServer server = new MiloServer(new Milo("./data/milo.txt"), port)) {
+            System.out.println("Milo is listening on port " + server.getPort());
+            server.serve();
+        } catch (IOException e) {
+            System.err.println("Failed to start the server: " + e.getMessage());
+        }
+    }
+}
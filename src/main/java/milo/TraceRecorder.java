@@ -0,0 +1,55 @@
+package milo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes every command Milo receives to a trace file, so that real workloads can be replayed by {@link TraceReplayer}.
+ * Each line holds the number of microseconds since recording began, a tab and the command as it was typed.
+ * Lines are flushed as they are written, so a trace survives a crash up to its last command.
+ */
+class TraceRecorder implements Closeable {
+    static final char SEPARATOR = '\t';
+
+    private final Writer writer;
+    private final long startNanos;
+
+    /**
+     * Starts a trace, replacing any trace already in the file.
+     *
+     * @param path The path of the trace file.
+     * @throws IOException If the file cannot be created.
+     */
+    TraceRecorder(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Appends a command to the trace. May be called from any thread.
+     *
+     * @param command The raw input, which should be a single line.
+     * @throws IOException If there is an error writing to the trace file.
+     */
+    synchronized void record(String command) throws IOException {
+        assert command.indexOf('\n') < 0 && command.indexOf('\r') < 0 : "A command should be a single line";
+        writer.write(Long.toString((System.nanoTime() - startNanos) / 1_000));
+        writer.write(SEPARATOR);
+        writer.write(command);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
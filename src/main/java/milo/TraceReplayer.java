@@ -0,0 +1,222 @@
+package milo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import milo.exception.MiloException;
+import milo.storage.Storage;
+import milo.task.Task;
+
+/**
+ * Replays a trace written by {@link TraceRecorder} against a copy of a data file, either as fast as possible
+ * or at the pace the commands were first received, then reports the throughput and a checksum of the final tasks.
+ * The data file, its journal and the directory of other lists beside it are copied first, so they are left untouched.
+ * Replaying the same trace against the same data should always end with the same checksum.
+ */
+public class TraceReplayer {
+    private static final String WORKSPACE_DIRECTORY = "lists";
+
+    private final long[] offsetsMicros;
+    private final String[] commands;
+
+    /**
+     * Summarizes a replay.
+     */
+    public static class Report {
+        private final int commandCount;
+        private final long elapsedNanos;
+        private final long checksum;
+
+        Report(int commandCount, long elapsedNanos, long checksum) {
+            this.commandCount = commandCount;
+            this.elapsedNanos = elapsedNanos;
+            this.checksum = checksum;
+        }
+
+        public int getCommandCount() {
+            return commandCount;
+        }
+
+        /**
+         * Returns the number of commands replayed per second, including the time taken to save the final tasks.
+         *
+         * @return The throughput of the replay.
+         */
+        public double getThroughput() {
+            return commandCount * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * Returns the checksum of the tasks saved at the end of the replay.
+         *
+         * @return The checksum, as computed by {@link TraceReplayer#checksum(Path)}.
+         */
+        public long getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d commands in %d ms: %.0f commands/s, final state checksum %08x",
+                    commandCount, elapsedNanos / 1_000_000, getThroughput(), checksum);
+        }
+    }
+
+    /**
+     * Reads a trace.
+     *
+     * @param tracePath The path of the trace file.
+     * @throws IOException If the trace cannot be read or a line is not in the trace format.
+     */
+    public TraceReplayer(Path tracePath) throws IOException {
+        List<String> lines = Files.readAllLines(tracePath, StandardCharsets.UTF_8);
+        offsetsMicros = new long[lines.size()];
+        commands = new String[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int separator = line.indexOf(TraceRecorder.SEPARATOR);
+            try {
+                offsetsMicros[i] = Long.parseLong(line.substring(0, Math.max(0, separator)));
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + (i + 1) + " of the trace has no timestamp: " + line);
+            }
+            commands[i] = line.substring(separator + 1);
+        }
+    }
+
+    /**
+     * Replays the trace against a copy of the data file.
+     *
+     * @param dataFile The data file the trace was recorded against. It need not exist.
+     * @param isPaced True to wait between commands as long as the original user did, false to send them back to back.
+     * @return The throughput and final checksum of the replay.
+     * @throws IOException If the data cannot be copied or saved.
+     * @throws InterruptedException If interrupted while waiting for the next command.
+     */
+    public Report replay(Path dataFile, boolean isPaced) throws IOException, InterruptedException {
+        Path workDirectory = Files.createTempDirectory("milo-replay");
+        try {
+            Path copy = copyData(dataFile, workDirectory);
+            Milo milo = new Milo(copy.toString());
+
+            long startNanos = System.nanoTime();
+            try {
+                for (int i = 0; i < commands.length; i++) {
+                    if (isPaced) {
+                        TimeUnit.NANOSECONDS.sleep(startNanos + offsetsMicros[i] * 1_000 - System.nanoTime());
+                    }
+                    milo.getResponse(commands[i]);
+                }
+            } finally {
+                milo.close();
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            return new Report(commands.length, elapsedNanos, checksum(copy));
+        } finally {
+            deleteRecursively(workDirectory);
+        }
+    }
+
+    /**
+     * Returns a checksum of the saved tasks of the default list in the data file and of every other list beside it.
+     * The lists are read back through Storage, so their journals are included.
+     *
+     * @param dataFile The data file of the default list.
+     * @return The CRC-32 of the names of the lists and the file format of their tasks.
+     * @throws IOException If a list cannot be read.
+     */
+    public static long checksum(Path dataFile) throws IOException {
+        List<Path> files = new ArrayList<>();
+        files.add(dataFile);
+        Path directory = dataFile.toAbsolutePath().getParent().resolve(WORKSPACE_DIRECTORY);
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> lists = Files.list(directory)) {
+                lists.filter(path -> !isAuxiliaryFile(path)).sorted().forEach(files::add);
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        for (Path file : files) {
+            crc.update((file.getFileName() + "\n").getBytes(StandardCharsets.UTF_8));
+            try {
+                for (Task task : new Storage(file.toString(), true).load()) {
+                    crc.update((task.toFileFormat() + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (MiloException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static Path copyData(Path dataFile, Path workDirectory) throws IOException {
+        Path fileName = dataFile.getFileName();
+        Path copy = workDirectory.resolve(fileName);
+        Path journal = Paths.get(dataFile + ".journal");
+        if (Files.exists(dataFile)) {
+            Files.copy(dataFile, copy);
+        }
+        if (Files.exists(journal)) {
+            Files.copy(journal, workDirectory.resolve(journal.getFileName()));
+        }
+
+        Path directory = dataFile.toAbsolutePath().getParent().resolve(WORKSPACE_DIRECTORY);
+        if (Files.isDirectory(directory)) {
+            Path directoryCopy = Files.createDirectory(workDirectory.resolve(WORKSPACE_DIRECTORY));
+            try (Stream<Path> lists = Files.list(directory)) {
+                for (Path list : (Iterable<Path>) lists::iterator) {
+                    Files.copy(list, directoryCopy.resolve(list.getFileName()));
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Returns whether a file in the lists directory is a journal or an unfinished save rather than a list.
+     */
+    private static boolean isAuxiliaryFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(".journal") || name.endsWith(".retired") || name.endsWith(".tmp");
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Replays a trace and prints the report.
+     *
+     * @param args The path of the trace, the optional path of the data file it was recorded against,
+     *     and 'paced' to keep the original pacing.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: TraceReplayer TRACE_FILE [DATA_FILE] [paced]");
+            return;
+        }
+        Path dataFile = Paths.get(args.length > 1 ? args[1] : "./data/milo.txt");
+        boolean isPaced = args.length > 2 && args[2].equalsIgnoreCase("paced");
+        try {
+            System.out.println(new TraceReplayer(Paths.get(args[0])).replay(dataFile, isPaced));
+        } catch (IOException e) {
+            System.err.println("Replay failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,7 +4,7 @@ package milo.command;
  * Represents the various commands supported by the Milo application.
  */
 public enum Command {
-    BYE, LIST, MARK, UNMARK, TODO, DEADLINE, EVENT, DELETE, FIND_DATE, FIND, UNKNOWN, SORT;
+    BYE, LIST, MARK, UNMARK, TODO, DEADLINE, EVENT, DELETE, FIND_DATE, FIND_RANGE, FIND, UNKNOWN, SORT, USE, STATS;
 
     /**
      * Translates a raw string input into a Command enum constant.
@@ -21,10 +21,23 @@ public enum Command {
             if (input.equalsIgnoreCase("find-date")) {
                 return FIND_DATE;
             }
+            if (input.equalsIgnoreCase("find-range")) {
+                return FIND_RANGE;
+            }
             // Add explicit check for sort or let valueOf handle it
             return Command.valueOf(input.toUpperCase().trim());
         } catch (IllegalArgumentException e) {
             return UNKNOWN;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns whether the command leaves the task list unchanged, so that it may run alongside other commands.
+     *
+     * @return True if the command only reads the task list.
+     */
+    public boolean isReadOnly() {
+        return this == LIST || this == FIND || this == FIND_DATE || this == FIND_RANGE || this == STATS
+                || this == UNKNOWN;
+    }
+}
@@ -0,0 +1,34 @@
+package milo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for one command, with the time spent in each of its phases.
+ */
+@Name("milo.Command")
+@Label("Milo Command")
+@Category("Milo")
+@Description("A command run by Milo")
+class CommandEvent extends jdk.jfr.Event {
+    @Label("Command")
+    String command;
+
+    @Label("Failed")
+    boolean isFailed;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long parseNanos;
+
+    @Label("Execute Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executeNanos;
+
+    @Label("Save Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long saveNanos;
+}
@@ -0,0 +1,247 @@
+package milo.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.EventType;
+
+import milo.command.Command;
+
+/**
+ * Collects the metrics of a running Milo: how often each command runs and how long it and each of
+ * its phases take, how much storage writes, and how long the last load took.
+ * Recording is allocation-free apart from Flight Recorder events, which are only built while a
+ * recording is enabled. The metrics are shown by the 'stats' command, published over JMX and
+ * emitted as the Flight Recorder events "milo.Command" and "milo.Write".
+ */
+public final class Metrics implements MetricsMXBean {
+    /** The JMX name the global metrics are registered under. */
+    public static final String OBJECT_NAME = "milo:type=Metrics";
+
+    private static final long NANOS_PER_MICRO = 1_000;
+    private static final Metrics GLOBAL = new Metrics();
+    private static final EventType COMMAND_EVENT_TYPE = EventType.getEventType(CommandEvent.class);
+    private static final EventType WRITE_EVENT_TYPE = EventType.getEventType(WriteEvent.class);
+
+    /**
+     * Represents the stages a command goes through.
+     * Rendering a list of tasks happens while the command executes, so its time is also part of EXECUTE.
+     */
+    public enum Phase {
+        PARSE, EXECUTE, RENDER, SAVE
+    }
+
+    private final LatencyHistogram[] commandLatencies = new LatencyHistogram[Command.values().length];
+    private final AtomicLongArray commandFailures = new AtomicLongArray(Command.values().length);
+    private final LatencyHistogram[] phaseLatencies = new LatencyHistogram[Phase.values().length];
+    private final AtomicLong snapshotCount = new AtomicLong();
+    private final AtomicLong snapshotBytes = new AtomicLong();
+    private final AtomicLong journalWriteCount = new AtomicLong();
+    private final AtomicLong journalBytes = new AtomicLong();
+    private volatile long lastLoadNanos;
+    private volatile long lastLoadTaskCount;
+
+    static {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(GLOBAL, name);
+            }
+        } catch (JMException | SecurityException e) {
+            System.err.println("Failed to publish metrics over JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Constructs an empty set of metrics.
+     */
+    public Metrics() {
+        for (int i = 0; i < commandLatencies.length; i++) {
+            commandLatencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < phaseLatencies.length; i++) {
+            phaseLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Returns the metrics shared by the whole application.
+     *
+     * @return The global metrics.
+     */
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Records a command that has finished running, successfully or not.
+     *
+     * @param command The command.
+     * @param parseNanos The time taken to work out the command.
+     * @param executeNanos The time taken to carry it out and build the reply.
+     * @param saveNanos The time taken to save its changes, or 0 if it made none.
+     * @param isFailed True if the command ended with an error.
+     */
+    public void recordCommand(Command command, long parseNanos, long executeNanos, long saveNanos,
+            boolean isFailed) {
+        commandLatencies[command.ordinal()].record(parseNanos + executeNanos + saveNanos);
+        if (isFailed) {
+            commandFailures.incrementAndGet(command.ordinal());
+        }
+        phaseLatencies[Phase.PARSE.ordinal()].record(parseNanos);
+        phaseLatencies[Phase.EXECUTE.ordinal()].record(executeNanos);
+        if (!command.isReadOnly()) {
+            phaseLatencies[Phase.SAVE.ordinal()].record(saveNanos);
+        }
+
+        if (!COMMAND_EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        CommandEvent event = new CommandEvent();
+        if (event.shouldCommit()) {
+            event.command = command.name();
+            event.isFailed = isFailed;
+            event.parseNanos = parseNanos;
+            event.executeNanos = executeNanos;
+            event.saveNanos = saveNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the time taken to render a list of tasks for display.
+     *
+     * @param nanos The rendering time.
+     */
+    public void recordRender(long nanos) {
+        phaseLatencies[Phase.RENDER.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records a snapshot of a task list written to disk.
+     *
+     * @param bytes The size of the snapshot.
+     * @param nanos The time taken to write and sync it.
+     */
+    public void recordSnapshotWrite(long bytes, long nanos) {
+        snapshotCount.incrementAndGet();
+        snapshotBytes.addAndGet(bytes);
+        commitWriteEvent("snapshot", bytes, nanos);
+    }
+
+    /**
+     * Records journal records appended to disk.
+     *
+     * @param bytes The number of bytes appended.
+     * @param nanos The time taken to append them.
+     */
+    public void recordJournalWrite(long bytes, long nanos) {
+        journalWriteCount.incrementAndGet();
+        journalBytes.addAndGet(bytes);
+        commitWriteEvent("journal", bytes, nanos);
+    }
+
+    /**
+     * Records a task list loaded from disk.
+     *
+     * @param taskCount The number of tasks loaded.
+     * @param nanos The time taken to load them, including the journal replay.
+     */
+    public void recordLoad(long taskCount, long nanos) {
+        lastLoadTaskCount = taskCount;
+        lastLoadNanos = nanos;
+    }
+
+    public LatencyHistogram getCommandLatencies(Command command) {
+        return commandLatencies[command.ordinal()];
+    }
+
+    public long getFailureCount(Command command) {
+        return commandFailures.get(command.ordinal());
+    }
+
+    public LatencyHistogram getPhaseLatencies(Phase phase) {
+        return phaseLatencies[phase.ordinal()];
+    }
+
+    public long getLastLoadTaskCount() {
+        return lastLoadTaskCount;
+    }
+
+    @Override
+    public Map<String, Long> getCommandCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Command command : Command.values()) {
+            if (getCommandLatencies(command).getCount() > 0) {
+                counts.put(command.name(), getCommandLatencies(command).getCount());
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getCommandP99Micros() {
+        Map<String, Long> latencies = new TreeMap<>();
+        for (Command command : Command.values()) {
+            if (getCommandLatencies(command).getCount() > 0) {
+                latencies.put(command.name(), getCommandLatencies(command).getValueAtPercentile(0.99) / NANOS_PER_MICRO);
+            }
+        }
+        return latencies;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseP99Micros() {
+        Map<String, Long> latencies = new TreeMap<>();
+        for (Phase phase : Phase.values()) {
+            latencies.put(phase.name(), getPhaseLatencies(phase).getValueAtPercentile(0.99) / NANOS_PER_MICRO);
+        }
+        return latencies;
+    }
+
+    @Override
+    public long getSnapshotCount() {
+        return snapshotCount.get();
+    }
+
+    @Override
+    public long getSnapshotBytesWritten() {
+        return snapshotBytes.get();
+    }
+
+    @Override
+    public long getJournalWriteCount() {
+        return journalWriteCount.get();
+    }
+
+    @Override
+    public long getJournalBytesWritten() {
+        return journalBytes.get();
+    }
+
+    @Override
+    public long getLastLoadMillis() {
+        return lastLoadNanos / 1_000_000;
+    }
+
+    private static void commitWriteEvent(String kind, long bytes, long nanos) {
+        if (!WRITE_EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        WriteEvent event = new WriteEvent();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.bytes = bytes;
+            event.writeNanos = nanos;
+            event.commit();
+        }
+    }
+}
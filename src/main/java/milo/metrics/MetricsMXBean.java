@@ -0,0 +1,39 @@
+package milo.metrics;
+
+import java.util.Map;
+
+/**
+ * Exposes Milo's metrics over JMX, under the name {@value Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+    /**
+     * Returns how many times each command has run, by command name.
+     *
+     * @return The command counts.
+     */
+    Map<String, Long> getCommandCounts();
+
+    /**
+     * Returns the 99th percentile latency of each command that has run, in microseconds.
+     *
+     * @return The latencies by command name.
+     */
+    Map<String, Long> getCommandP99Micros();
+
+    /**
+     * Returns the 99th percentile latency of each phase of a command, in microseconds.
+     *
+     * @return The latencies by phase name.
+     */
+    Map<String, Long> getPhaseP99Micros();
+
+    long getSnapshotCount();
+
+    long getSnapshotBytesWritten();
+
+    long getJournalWriteCount();
+
+    long getJournalBytesWritten();
+
+    long getLastLoadMillis();
+}
@@ -0,0 +1,28 @@
+package milo.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for a snapshot or journal write made by Milo's storage.
+ */
+@Name("milo.Write")
+@Label("Milo Storage Write")
+@Category("Milo")
+@Description("A snapshot or journal write to a task file")
+class WriteEvent extends jdk.jfr.Event {
+    @Label("Kind")
+    String kind;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    @Label("Write Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long writeNanos;
+}
@@ -1,11 +1,14 @@
 package milo.parser;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.BitSet;
 
 import milo.command.Command;
 import milo.exception.MiloException;
+import milo.metrics.Metrics;
 import milo.storage.Storage;
 import milo.task.Deadline;
 import milo.task.Event;
@@ -19,6 +22,7 @@ import milo.ui.Ui;
  * Responsible for validating command arguments and coordinating with TaskList, Ui, and Storage.
  */
 public class Parser {
+    private static final int MAX_PAGE_SIZE = 1000;
 
     /**
      * Parses the user input and executes the corresponding command.
@@ -26,7 +30,7 @@ public class Parser {
      * @param fullCommand The raw input string provided by the user.
      * @param tasks The TaskList to be manipulated based on the command.
      * @param ui The user interface to handle output messages.
-     * @param storage The storage component to save changes after execution.
+     * @param storage The storage component to save changes to, if the command made any.
      * @return The response message to be displayed in the GUI.
      * @throws MiloException If the command is unrecognized or arguments are invalid.
      * @throws IOException If there is an error saving data to the file.
@@ -38,72 +42,131 @@ public class Parser {
         assert ui != null : "Ui ui should not be null";
         assert storage != null : "Storage storage should not be null";
 
+        long startNanos = System.nanoTime();
         String[] words = fullCommand.split(" ", 2);
         assert words.length > 0 : "Split command should have at least one part";
 
         Command command = Command.fromString(words[0]);
         assert command != null : "Command should never be null";
+        long parsedNanos = System.nanoTime();
+        long executedNanos = 0;
+        boolean isFailed = true;
 
-        String response;
+        try {
+            String response = execute(command, words, tasks, ui, storage);
+            executedNanos = System.nanoTime();
+            // Only commands that modified the list reach the disk, so read-only ones can run alongside a writer
+            if (!command.isReadOnly() && command != Command.BYE) {
+                storage.save(tasks);
+            }
+            isFailed = false;
+            return response;
+        } finally {
+            long finishedNanos = System.nanoTime();
+            if (executedNanos == 0) {
+                executedNanos = finishedNanos;
+            }
+            Metrics.global().recordCommand(command, parsedNanos - startNanos, executedNanos - parsedNanos,
+                    finishedNanos - executedNanos, isFailed);
+        }
+    }
 
+    private static String execute(Command command, String[] words, TaskList tasks, Ui ui, Storage storage)
+            throws MiloException, IOException {
         switch (command) {
             case BYE:
+                storage.flush();
                 return ui.showExit();
 
             case LIST:
-                response = ui.showTaskList(tasks);
-                break;
+                return handleList(words, tasks, ui);
 
             case MARK:
-                response = handleMarkUnmark(words, tasks, ui, true);
-                break;
+                return handleMarkUnmark(words, tasks, ui, storage, true);
 
             case UNMARK:
-                response = handleMarkUnmark(words, tasks, ui, false);
-                break;
+                return handleMarkUnmark(words, tasks, ui, storage, false);
 
             case TODO:
-                response = handleTodo(words, tasks, ui);
-                break;
+                return handleTodo(words, tasks, ui, storage);
 
             case DEADLINE:
-                response = handleDeadline(words, tasks, ui);
-                break;
+                return handleDeadline(words, tasks, ui, storage);
 
             case EVENT:
-                response = handleEvent(words, tasks, ui);
-                break;
+                return handleEvent(words, tasks, ui, storage);
 
             case DELETE:
-                response = handleDelete(words, tasks, ui);
-                break;
+                return handleDelete(words, tasks, ui, storage);
 
             case FIND_DATE:
-                response = handleFindDate(words, tasks, ui);
-                break;
+                return handleFindDate(words, tasks, ui);
+
+            case FIND_RANGE:
+                return handleFindRange(words, tasks, ui);
 
             case FIND:
-                response = handleFind(words, tasks, ui);
-                break;
+                return handleFind(words, tasks, ui);
 
             case SORT:
-                response = handleSort(words, tasks, ui);
-                break;
+                return handleSort(words, tasks, ui, storage);
+
+            case STATS:
+                return ui.showStats(Metrics.global());
 
             case UNKNOWN:
             default:
                 throw new MiloException("OOPS!!! I'm sorry, but I don't know what that means :-(");
         }
+    }
 
-        // Save after every command that modifies the list
-        storage.save(tasks.getTasks());
-        return response;
+    /**
+     * Returns whether the input asks for the whole task list rather than one page of it.
+     *
+     * @param fullCommand The raw input string provided by the user.
+     * @return True if the input is a 'list' command without arguments.
+     */
+    public static boolean isFullListCommand(String fullCommand) {
+        String[] words = fullCommand.split(" ", 2);
+        return Command.fromString(words[0]) == Command.LIST && (words.length < 2 || words[1].trim().isEmpty());
+    }
+
+    /**
+     * Handles listing either the whole task list or, given a page number and optional page size, one page of it.
+     */
+    private static String handleList(String[] words, TaskList tasks, Ui ui) throws MiloException {
+        if (words.length < 2 || words[1].trim().isEmpty()) {
+            return ui.showTaskList(tasks);
+        }
+
+        String[] arguments = words[1].trim().split("\\s+");
+        if (arguments.length > 2) {
+            throw new MiloException("Please use 'list [PAGE] [PAGE_SIZE]'.");
+        }
+        try {
+            int page = Integer.parseInt(arguments[0]);
+            int pageSize = arguments.length == 2 ? Integer.parseInt(arguments[1]) : Ui.DEFAULT_PAGE_SIZE;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new MiloException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+            }
+            if (tasks.getSize() == 0) {
+                return ui.showTaskList(tasks);
+            }
+            int pageCount = Ui.getPageCount(tasks.getSize(), pageSize);
+            if (page < 1 || page > pageCount) {
+                throw new MiloException("Page must be between 1 and " + pageCount + ".");
+            }
+            return ui.showTaskPage(tasks.snapshot(), page, pageSize);
+        } catch (NumberFormatException e) {
+            throw new MiloException("Please use 'list [PAGE] [PAGE_SIZE]'.");
+        }
     }
 
     /**
      * Handles the sorting of tasks (C-Sort extension).
      */
-    private static String handleSort(String[] words, TaskList tasks, Ui ui) throws MiloException {
+    private static String handleSort(String[] words, TaskList tasks, Ui ui, Storage storage)
+            throws MiloException, IOException {
         if (words.length < 2 || words[1].trim().isEmpty()) {
             throw new MiloException("Please specify sort type: 'sort name' or 'sort date'.");
         }
@@ -111,9 +174,11 @@ public class Parser {
         String sortType = words[1].trim().toLowerCase();
         if (sortType.equals("name")) {
             tasks.sortAlphabetically();
+            storage.logSort(sortType);
             return "Sorted tasks alphabetically by description!";
         } else if (sortType.equals("date")) {
             tasks.sortChronologically();
+            storage.logSort(sortType);
             return "Sorted tasks chronologically by date! (Tasks without dates are at the bottom)";
         } else {
             throw new MiloException("Unknown sort type. Please use 'sort name' or 'sort date'.");
@@ -123,13 +188,15 @@ public class Parser {
     /**
      * Handles the creation and addition of a Todo task.
      */
-    private static String handleTodo(String[] words, TaskList tasks, Ui ui) throws MiloException {
+    private static String handleTodo(String[] words, TaskList tasks, Ui ui, Storage storage)
+            throws MiloException, IOException {
         if (words.length < 2 || words[1].trim().isEmpty()) {
             throw new MiloException("The description of a todo cannot be empty.");
         }
 
         Task task = new Todo(words[1]);
         tasks.addTask(task);
+        storage.logAdd(task);
 
         assert tasks.getSize() > 0 : "TaskList size should increase after adding a task";
         return ui.showAddedTask(task, tasks.getSize());
@@ -138,7 +205,8 @@ public class Parser {
     /**
      * Handles the creation and addition of a Deadline task.
      */
-    private static String handleDeadline(String[] words, TaskList tasks, Ui ui) throws MiloException {
+    private static String handleDeadline(String[] words, TaskList tasks, Ui ui, Storage storage)
+            throws MiloException, IOException {
         if (words.length < 2 || !words[1].contains(" /by ")) {
             throw new MiloException("Deadlines must include description and ' /by ' [yyyy-mm-dd].");
         }
@@ -149,6 +217,7 @@ public class Parser {
 
             Task task = new Deadline(parts[0], parts[1]);
             tasks.addTask(task);
+            storage.logAdd(task);
             return ui.showAddedTask(task, tasks.getSize());
         } catch (DateTimeParseException e) {
             throw new MiloException("Please use the format YYYY-MM-DD for the date.");
@@ -158,7 +227,8 @@ public class Parser {
     /**
      * Handles the creation and addition of an Event task.
      */
-    private static String handleEvent(String[] words, TaskList tasks, Ui ui) throws MiloException {
+    private static String handleEvent(String[] words, TaskList tasks, Ui ui, Storage storage)
+            throws MiloException, IOException {
         if (words.length < 2 || !words[1].contains(" /from ") || !words[1].contains(" /to ")) {
             throw new MiloException("Events must include description, ' /from ' and ' /to ' [yyyy-mm-dd].");
         }
@@ -172,6 +242,7 @@ public class Parser {
 
             Task task = new Event(eParts[0], timeParts[0], timeParts[1]);
             tasks.addTask(task);
+            storage.logAdd(task);
             return ui.showAddedTask(task, tasks.getSize());
         } catch (DateTimeParseException e) {
             throw new MiloException("Please use YYYY-MM-DD for event dates.");
@@ -181,45 +252,98 @@ public class Parser {
     /**
      * Handles the marking or unmarking of a task as done.
      */
-    private static String handleMarkUnmark(String[] words, TaskList tasks, Ui ui, boolean isMark) throws MiloException {
+    private static String handleMarkUnmark(String[] words, TaskList tasks, Ui ui, Storage storage, boolean isMark)
+            throws MiloException, IOException {
         if (words.length < 2) {
             throw new MiloException("Please specify the task number.");
         }
-        try {
-            int index = Integer.parseInt(words[1]) - 1;
-            assert tasks.getSize() >= 0 : "TaskList size cannot be negative";
-
-            Task task = tasks.getTask(index);
-
-            if (isMark) {
-                task.markAsDone();
-                return ui.showStatusChange(task, true);
-            } else {
-                task.unmarkDone();
-                return ui.showStatusChange(task, false);
-            }
-        } catch (NumberFormatException | IndexOutOfBoundsException e) {
-            throw new MiloException("Invalid task number.");
+        BitSet indices = parseTaskIndices(words[1], tasks);
+        if (indices.cardinality() > 1) {
+            ArrayList<Task> updatedTasks = tasks.setTasksDone(indices, isMark);
+            storage.logStatusChange(indices, isMark);
+            return ui.showStatusChanges(updatedTasks, isMark);
         }
+
+        int index = indices.nextSetBit(0);
+        Task task = isMark ? tasks.markTask(index) : tasks.unmarkTask(index);
+        storage.logStatusChange(index, isMark);
+        return ui.showStatusChange(task, isMark);
     }
 
     /**
      * Handles the deletion of a task from the list.
      */
-    private static String handleDelete(String[] words, TaskList tasks, Ui ui) throws MiloException {
+    private static String handleDelete(String[] words, TaskList tasks, Ui ui, Storage storage)
+            throws MiloException, IOException {
         if (words.length < 2) {
             throw new MiloException("Please specify the task number to delete.");
         }
 
-        try {
-            int index = Integer.parseInt(words[1]) - 1;
-            int initialSize = tasks.getSize();
+        BitSet indices = parseTaskIndices(words[1], tasks);
+        if (indices.cardinality() > 1) {
+            ArrayList<Task> removedTasks = tasks.deleteTasks(indices);
+            storage.logDelete(indices);
+            return ui.showRemovedTasks(removedTasks, tasks.getSize());
+        }
+
+        int index = indices.nextSetBit(0);
+        int initialSize = tasks.getSize();
+
+        Task removedTask = tasks.deleteTask(index);
+        assert tasks.getSize() == initialSize - 1 : "TaskList size should decrease by 1";
+        storage.logDelete(index);
+
+        return ui.showRemovedTask(removedTask, tasks.getSize());
+    }
+
+    /**
+     * Resolves a comma-separated list of task references, each a displayed number, an ID such as "#17"
+     * or an inclusive range of displayed numbers such as "10-200", to zero-based indices.
+     */
+    private static BitSet parseTaskIndices(String references, TaskList tasks) throws MiloException {
+        BitSet indices = new BitSet();
+        for (String reference : references.split(",")) {
+            String trimmed = reference.trim();
+            int dash = trimmed.indexOf('-', 1);
+            if (trimmed.startsWith("#") || dash < 0) {
+                indices.set(parseTaskIndex(trimmed, tasks));
+                continue;
+            }
+
+            int start = parseTaskIndex(trimmed.substring(0, dash), tasks);
+            int end = parseTaskIndex(trimmed.substring(dash + 1), tasks);
+            if (end < start) {
+                throw new MiloException("Invalid task range " + trimmed + ".");
+            }
+            indices.set(start, end + 1);
+        }
+        if (indices.isEmpty()) {
+            throw new MiloException("Invalid task number.");
+        }
+        return indices;
+    }
 
-            Task removedTask = tasks.deleteTask(index);
-            assert tasks.getSize() == initialSize - 1 : "TaskList size should decrease by 1";
+    /**
+     * Resolves a reference to a task, either its displayed number such as "3" or its ID such as "#17",
+     * to the zero-based index of the task in the list.
+     */
+    private static int parseTaskIndex(String reference, TaskList tasks) throws MiloException {
+        String trimmed = reference.trim();
+        try {
+            if (trimmed.startsWith("#")) {
+                Task task = tasks.getTaskById(Integer.parseInt(trimmed.substring(1)));
+                if (task == null) {
+                    throw new MiloException("There is no task with the ID " + trimmed + ".");
+                }
+                return tasks.indexOf(task);
+            }
 
-            return ui.showRemovedTask(removedTask, tasks.getSize());
-        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            int index = Integer.parseInt(trimmed) - 1;
+            if (index < 0 || index >= tasks.getSize()) {
+                throw new MiloException("Invalid task number.");
+            }
+            return index;
+        } catch (NumberFormatException e) {
             throw new MiloException("Invalid task number.");
         }
     }
@@ -234,11 +358,38 @@ public class Parser {
         String dateStr = words[1].trim();
         assert !dateStr.isEmpty() : "Search date string should not be empty after trim";
 
-        return ui.showTasksByDate(dateStr, tasks.getTasks());
+        LocalDate date = parseSearchDate(dateStr);
+        return ui.showTasksByDate(date, tasks.findTasksOnDate(date));
+    }
+
+    /**
+     * Handles searching for tasks falling within an inclusive date range.
+     */
+    private static String handleFindRange(String[] words, TaskList tasks, Ui ui) throws MiloException {
+        String[] dates = words.length < 2 ? new String[0] : words[1].trim().split("\\s+");
+        if (dates.length != 2) {
+            throw new MiloException("Please specify a range as 'find-range YYYY-MM-DD YYYY-MM-DD'.");
+        }
+
+        LocalDate from = parseSearchDate(dates[0]);
+        LocalDate to = parseSearchDate(dates[1]);
+        if (from.isAfter(to)) {
+            throw new MiloException("The start of the range must not be after its end.");
+        }
+        return ui.showTasksInRange(from, to, tasks.findTasksBetween(from, to));
+    }
+
+    private static LocalDate parseSearchDate(String dateStr) throws MiloException {
+        try {
+            return LocalDate.parse(dateStr);
+        } catch (DateTimeParseException e) {
+            throw new MiloException("OOPS!!! Please use the format YYYY-MM-DD for searching.");
+        }
     }
 
     /**
      * Handles searching for tasks by keyword.
+     * Tasks must match every keyword, or any one of them if the query ends with ' /any'.
      */
     private static String handleFind(String[] words, TaskList tasks, Ui ui) throws MiloException {
         if (words.length < 2 || words[1].trim().isEmpty()) {
@@ -246,9 +397,13 @@ public class Parser {
         }
 
         String keyword = words[1].trim();
+        boolean isAnyMatch = keyword.endsWith(" /any");
+        if (isAnyMatch) {
+            keyword = keyword.substring(0, keyword.length() - " /any".length()).trim();
+        }
         assert !keyword.isEmpty() : "Keyword should not be empty for search";
 
-        ArrayList<Task> matchingTasks = tasks.findTasks(keyword);
+        ArrayList<Task> matchingTasks = isAnyMatch ? tasks.findAnyTasks(keyword) : tasks.findTasks(keyword);
         return ui.showMatchingTasks(matchingTasks);
     }
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+package milo.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import milo.exception.MiloException;
+import milo.task.Deadline;
+import milo.task.Event;
+import milo.task.Task;
+import milo.task.Todo;
+
+/**
+ * Reads and writes the compact binary snapshot format.
+ * A snapshot starts with the magic bytes "MILO", a format version byte, the task count and the ID
+ * the next new task should get, followed by one record per task. Each record is its length as an int,
+ * then its bytes, then the CRC-32 of those bytes, so a record whose checksum does not match can be
+ * skipped without losing the ones after it. The bytes of a record are a type byte ('T', 'D' or 'E'),
+ * a flags byte (bit 0 set when done), the task's ID as an int, one epoch-day int for a deadline or
+ * two for an event, and the description in UTF-8 up to the end of the record.
+ * All numbers are big-endian.
+ */
+public final class BinarySnapshot {
+    static final String FILE_EXTENSION = ".bin";
+
+    private static final byte[] MAGIC = {'M', 'I', 'L', 'O'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1 + 2 * Integer.BYTES;
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+    private static final byte FLAG_DONE = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MIN_RECORD_SIZE = 4 * Integer.BYTES + 2;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Writes the tasks to a binary snapshot file, replacing any existing content.
+     *
+     * @param path The file to write.
+     * @param tasks The tasks to be written.
+     * @param nextId The ID the next new task should get.
+     * @throws IOException If there is an error writing the file.
+     */
+    public static void write(Path path, ArrayList<Task> tasks, int nextId) throws IOException {
+        try (OutputStream output = Files.newOutputStream(path)) {
+            write(output, tasks, nextId);
+        }
+    }
+
+    /**
+     * Writes the tasks as a binary snapshot to a stream, flushing but not closing it.
+     *
+     * @param output The stream to write to.
+     * @param tasks The tasks to be written.
+     * @param nextId The ID the next new task should get.
+     * @throws IOException If there is an error writing to the stream.
+     */
+    public static void write(OutputStream output, ArrayList<Task> tasks, int nextId) throws IOException {
+        CRC32 crc = new CRC32();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tasks.size());
+        out.writeInt(nextId);
+
+        // Each record is built in memory first, since its length is written before it
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream record = new DataOutputStream(recordBytes);
+        CheckedOutputStream checked = new CheckedOutputStream(out, crc);
+        for (Task task : tasks) {
+            recordBytes.reset();
+            writeRecord(record, task);
+            out.writeInt(recordBytes.size());
+            crc.reset();
+            recordBytes.writeTo(checked);
+            out.writeInt((int) crc.getValue());
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a binary snapshot file by memory-mapping it, or by streaming it if it is too large to map.
+     * Records whose checksum does not match are skipped, and reading stops at the first record
+     * that is truncated or cannot be decoded, keeping every task read before it.
+     *
+     * @param path The file to read.
+     * @param tasks The list the tasks are appended to.
+     * @return A report counting the records declared in the snapshot and those that were salvaged.
+     * @throws MiloException If the file is not a binary snapshot.
+     * @throws IOException If there is an error reading the file.
+     */
+    public static LoadReport read(Path path, ArrayList<Task> tasks) throws MiloException, IOException {
+        long startTime = System.nanoTime();
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                try (InputStream input = Files.newInputStream(path)) {
+                    return read(input, tasks);
+                }
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int count = readHeader(buffer);
+        int savedNextId = buffer.getInt();
+        tasks.ensureCapacity(tasks.size() + Math.min(count, buffer.remaining() / MIN_RECORD_SIZE));
+        long salvagedCount = 0;
+        long checksumFailureCount = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                Task task = readRecord(buffer);
+                if (task == null) {
+                    checksumFailureCount++;
+                } else {
+                    tasks.add(task);
+                    salvagedCount++;
+                }
+            }
+        } catch (BufferUnderflowException | DateTimeException | MiloException e) {
+            // Keep the records before the damaged one
+        }
+        return new LoadReport(count, salvagedCount, checksumFailureCount, System.nanoTime() - startTime,
+                savedNextId);
+    }
+
+    /**
+     * Reads a binary snapshot sequentially from a stream.
+     * Records whose checksum does not match are skipped, and reading stops at the first record
+     * that is truncated or cannot be decoded, keeping every task read before it.
+     *
+     * @param input The stream to read from.
+     * @param tasks The list the tasks are appended to.
+     * @return A report counting the records declared in the snapshot and those that were salvaged.
+     * @throws MiloException If the stream does not hold a binary snapshot.
+     * @throws IOException If there is an error reading the stream.
+     */
+    public static LoadReport read(InputStream input, ArrayList<Task> tasks) throws MiloException, IOException {
+        long startTime = System.nanoTime();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+        byte[] header = new byte[HEADER_SIZE];
+        try {
+            in.readFully(header);
+        } catch (EOFException e) {
+            throw new MiloException("Unrecognized snapshot file.");
+        }
+
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+        int count = readHeader(headerBuffer);
+        int savedNextId = headerBuffer.getInt();
+        long salvagedCount = 0;
+        long checksumFailureCount = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                Task task = readRecord(in);
+                if (task == null) {
+                    checksumFailureCount++;
+                } else {
+                    tasks.add(task);
+                    salvagedCount++;
+                }
+            }
+        } catch (EOFException | BufferUnderflowException | DateTimeException | MiloException e) {
+            // Keep the records before the damaged one
+        }
+        return new LoadReport(count, salvagedCount, checksumFailureCount, System.nanoTime() - startTime,
+                savedNextId);
+    }
+
+    /**
+     * Checks the header at the buffer's position and returns the task count, leaving the next unused ID to be read.
+     */
+    private static int readHeader(ByteBuffer buffer) throws MiloException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new MiloException("Unrecognized snapshot file.");
+        }
+        for (byte expected : MAGIC) {
+            if (buffer.get() != expected) {
+                throw new MiloException("Unrecognized snapshot file.");
+            }
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new MiloException("Unsupported snapshot version " + version + ".");
+        }
+        int count = buffer.getInt();
+        if (count < 0) {
+            throw new MiloException("Corrupted snapshot header.");
+        }
+        return count;
+    }
+
+    private static void writeRecord(DataOutputStream out, Task task) throws IOException {
+        byte flags = task.isDone() ? FLAG_DONE : 0;
+        if (task instanceof Deadline) {
+            out.writeByte(DEADLINE);
+            out.writeByte(flags);
+            out.writeInt(task.getId());
+            out.writeInt((int) ((Deadline) task).getBy().toEpochDay());
+        } else if (task instanceof Event) {
+            out.writeByte(EVENT);
+            out.writeByte(flags);
+            out.writeInt(task.getId());
+            out.writeInt((int) ((Event) task).getFrom().toEpochDay());
+            out.writeInt((int) ((Event) task).getTo().toEpochDay());
+        } else {
+            out.writeByte(TODO);
+            out.writeByte(flags);
+            out.writeInt(task.getId());
+        }
+
+        out.write(task.getDescription().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the record at the buffer's position and moves past it, returning null if its checksum does not match.
+     */
+    private static Task readRecord(ByteBuffer buffer) throws MiloException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() - Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        ByteBuffer record = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        CRC32 crc = new CRC32();
+        crc.update(record.duplicate());
+        if ((int) crc.getValue() != buffer.getInt()) {
+            return null;
+        }
+        return decodeRecord(record);
+    }
+
+    private static Task readRecord(DataInputStream in) throws MiloException, IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new EOFException();
+        }
+        // Reads in chunks, so a damaged length cannot make this allocate more than the stream holds
+        byte[] record = in.readNBytes(length);
+        if (record.length < length) {
+            throw new EOFException();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        if ((int) crc.getValue() != in.readInt()) {
+            return null;
+        }
+        return decodeRecord(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Decodes the bytes of a record, whose description takes up the rest of the buffer.
+     */
+    private static Task decodeRecord(ByteBuffer record) throws MiloException {
+        byte type = record.get();
+        byte flags = record.get();
+        int id = record.getInt();
+        LocalDate first = type == TODO ? null : LocalDate.ofEpochDay(record.getInt());
+        LocalDate second = type == EVENT ? LocalDate.ofEpochDay(record.getInt()) : null;
+        return createTask(type, flags, id, StandardCharsets.UTF_8.decode(record).toString(), first, second);
+    }
+
+    private static Task createTask(byte type, byte flags, int id, String description, LocalDate first,
+            LocalDate second) throws MiloException {
+        Task task;
+        switch (type) {
+            case TODO:
+                task = new Todo(description);
+                break;
+            case DEADLINE:
+                task = new Deadline(description, first);
+                break;
+            case EVENT:
+                task = new Event(description, first, second);
+                break;
+            default:
+                throw new MiloException("Corrupted snapshot record.");
+        }
+
+        if ((flags & FLAG_DONE) != 0) {
+            task.markAsDone();
+        }
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,12 @@
+package milo.storage;
+
+/**
+ * Controls whether journal records appended by background group commits are forced to the storage device.
+ * Snapshots are always synced before they replace the task file.
+ */
+public enum FsyncPolicy {
+    /** Leave flushing to the operating system. */
+    NEVER,
+    /** Force every group commit to the device before it is considered done. */
+    EVERY_COMMIT
+}
@@ -0,0 +1,241 @@
+package milo.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+
+import milo.exception.MiloException;
+import milo.metrics.Metrics;
+import milo.task.TaskList;
+
+/**
+ * Append-only log of the mutations applied to the task list since the last snapshot.
+ * Each mutation is stored as one short line sealed with a checksum, so a command costs
+ * a small append instead of a rewrite of the whole task file, and a torn append is detected.
+ */
+public class Journal {
+    static final String ADD = "A";
+    static final String MARK = "M";
+    static final String UNMARK = "U";
+    static final String DELETE = "D";
+    static final String SORT = "S";
+
+    private static final String SEPARATOR = " | ";
+
+    private final Path path;
+    private final Path retiredPath;
+
+    /**
+     * Constructs a Journal backed by the specified file.
+     *
+     * @param filePath The path of the journal file.
+     */
+    public Journal(String filePath) {
+        this.path = Paths.get(filePath);
+        this.retiredPath = Paths.get(filePath + ".retired");
+    }
+
+    /**
+     * Formats a mutation record as it is stored in the journal, without the line separator.
+     *
+     * @param type The record type, one of the constants declared in this class.
+     * @param argument The payload of the record.
+     * @return The formatted record.
+     */
+    static String format(String type, String argument) {
+        return type + SEPARATOR + argument;
+    }
+
+    /**
+     * Formats a set of task indices as the argument of a mark, unmark or delete record.
+     * Runs of consecutive indices are written as ranges, for example "2,6,9-199".
+     *
+     * @param indices The zero-based indices.
+     * @return The formatted indices.
+     */
+    static String formatIndices(BitSet indices) {
+        StringBuilder formatted = new StringBuilder();
+        for (int start = indices.nextSetBit(0); start >= 0; start = indices.nextSetBit(start + 1)) {
+            int end = indices.nextClearBit(start) - 1;
+            if (formatted.length() > 0) {
+                formatted.append(',');
+            }
+            formatted.append(start);
+            if (end > start) {
+                formatted.append('-').append(end);
+            }
+            start = end;
+        }
+        return formatted.toString();
+    }
+
+    /**
+     * Appends a single mutation record to the end of the journal.
+     *
+     * @param type The record type, one of the constants declared in this class.
+     * @param argument The payload of the record.
+     * @throws IOException If there is an error writing to the journal file.
+     */
+    public void append(String type, String argument) throws IOException {
+        long startNanos = System.nanoTime();
+        byte[] record = (RecordChecksum.seal(format(type, argument)) + System.lineSeparator())
+                .getBytes(StandardCharsets.UTF_8);
+        Files.write(path, record, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        Metrics.global().recordJournalWrite(record.length, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Appends a batch of formatted records with a single write, optionally forcing them to the device.
+     *
+     * @param records The records to append, as returned by {@link #format(String, String)}.
+     * @param isSynced True if the records must be on stable storage before this method returns.
+     * @throws IOException If there is an error writing to the journal file.
+     */
+    void appendAll(List<String> records, boolean isSynced) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        StringBuilder batch = new StringBuilder();
+        for (String record : records) {
+            batch.append(RecordChecksum.seal(record)).append(System.lineSeparator());
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(batch.toString());
+            int byteCount = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (isSynced) {
+                channel.force(false);
+            }
+            Metrics.global().recordJournalWrite(byteCount, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Re-applies every record in the journal to the given task list, in the order they were written.
+     * Records that cannot be applied are skipped. Replay stops at the first record that is unsealed
+     * or whose checksum does not match, such as a line torn by a crash mid-append, since every later
+     * record was written against a state that can no longer be reproduced.
+     *
+     * @param tasks The task list loaded from the latest snapshot.
+     * @return The number of records replayed from the journal.
+     * @throws IOException If there is an error reading the journal file.
+     */
+    public int replay(TaskList tasks) throws IOException {
+        int recordCount = 0;
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String record = RecordChecksum.openSealed(line);
+                if (record == null) {
+                    break;
+                }
+                recordCount++;
+                try {
+                    apply(record, tasks);
+                } catch (MiloException | RuntimeException e) {
+                    // Ignore records that cannot be applied
+                }
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * Sets the records aside just before a snapshot that includes them replaces the task file.
+     * Until {@link #discardRetired()} is called, the retired file marks the replacement as in progress.
+     *
+     * @throws IOException If there is an error renaming the journal file.
+     */
+    void retire() throws IOException {
+        if (Files.exists(path)) {
+            Files.move(path, retiredPath, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.write(retiredPath, new byte[0]);
+        }
+    }
+
+    /**
+     * Returns whether a snapshot replacement was interrupted after the records were set aside.
+     *
+     * @return True if a retired journal file exists.
+     */
+    boolean hasRetired() {
+        return Files.exists(retiredPath);
+    }
+
+    /**
+     * Discards the records set aside by {@link #retire()} once the new snapshot is in place.
+     *
+     * @throws IOException If there is an error deleting the retired journal file.
+     */
+    void discardRetired() throws IOException {
+        Files.deleteIfExists(retiredPath);
+    }
+
+    private void apply(String line, TaskList tasks) throws MiloException {
+        String[] parts = line.split(" \\| ", 2);
+        if (parts.length < 2) {
+            throw new MiloException("Corrupted journal record.");
+        }
+
+        String argument = parts[1];
+        switch (parts[0]) {
+            case ADD:
+                tasks.addTask(TaskLineParser.parse(argument));
+                break;
+            case MARK:
+                tasks.setTasksDone(parseIndices(argument, tasks), true);
+                break;
+            case UNMARK:
+                tasks.setTasksDone(parseIndices(argument, tasks), false);
+                break;
+            case DELETE:
+                tasks.deleteTasks(parseIndices(argument, tasks));
+                break;
+            case SORT:
+                if (argument.equals("name")) {
+                    tasks.sortAlphabetically();
+                } else {
+                    tasks.sortChronologically();
+                }
+                break;
+            default:
+                throw new MiloException("Unknown journal record.");
+        }
+    }
+
+    /**
+     * Parses indices written by {@link #formatIndices(BitSet)}. A single index is also accepted.
+     */
+    private BitSet parseIndices(String argument, TaskList tasks) throws MiloException {
+        BitSet indices = new BitSet();
+        for (String part : argument.trim().split(",")) {
+            int dash = part.indexOf('-');
+            int start = Integer.parseInt(dash < 0 ? part : part.substring(0, dash));
+            int end = dash < 0 ? start : Integer.parseInt(part.substring(dash + 1));
+            if (start < 0 || end < start || end >= tasks.getSize()) {
+                throw new MiloException("Journal record refers to a missing task.");
+            }
+            indices.set(start, end + 1);
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,107 @@
+package milo.storage;
+
+/**
+ * Summarizes a single load of the storage file, including how many records were salvaged
+ * when some of them turned out to be damaged.
+ */
+public class LoadReport {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long lineCount;
+    private final long taskCount;
+    private final long checksumFailureCount;
+    private final long durationNanos;
+    private final int savedNextId;
+
+    /**
+     * Constructs a LoadReport for a load in which no checksum failed.
+     *
+     * @param lineCount The number of lines read from the file.
+     * @param taskCount The number of tasks successfully parsed.
+     * @param durationNanos The time taken to read and parse the file, in nanoseconds.
+     */
+    public LoadReport(long lineCount, long taskCount, long durationNanos) {
+        this(lineCount, taskCount, 0, durationNanos, 0);
+    }
+
+    /**
+     * Constructs a LoadReport.
+     *
+     * @param lineCount The number of lines or records read from the file, not counting the header.
+     * @param taskCount The number of tasks successfully parsed.
+     * @param checksumFailureCount The number of records skipped because their checksum did not match.
+     * @param durationNanos The time taken to read and parse the file, in nanoseconds.
+     * @param savedNextId The next unused task ID saved in the file, or 0 if it holds none.
+     */
+    public LoadReport(long lineCount, long taskCount, long checksumFailureCount, long durationNanos,
+            int savedNextId) {
+        this.lineCount = lineCount;
+        this.taskCount = taskCount;
+        this.checksumFailureCount = checksumFailureCount;
+        this.durationNanos = durationNanos;
+        this.savedNextId = savedNextId;
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    /**
+     * Returns the number of lines that could not be parsed and were skipped,
+     * including those whose checksum did not match.
+     *
+     * @return The number of skipped lines.
+     */
+    public long getSkippedCount() {
+        return lineCount - taskCount;
+    }
+
+    public long getChecksumFailureCount() {
+        return checksumFailureCount;
+    }
+
+    /**
+     * Returns the ID the next new task should get, as saved in the file.
+     *
+     * @return The next unused ID, or 0 if the file does not record one.
+     */
+    public int getSavedNextId() {
+        return savedNextId;
+    }
+
+    /**
+     * Returns whether any record was lost while loading.
+     *
+     * @return True if at least one line or record was skipped.
+     */
+    public boolean hasDataLoss() {
+        return getSkippedCount() > 0;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Returns the load throughput.
+     *
+     * @return The number of lines read per second.
+     */
+    public long getLinesPerSecond() {
+        if (durationNanos <= 0) {
+            return 0;
+        }
+        return lineCount * NANOS_PER_SECOND / durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d tasks from %d lines in %.1f ms (%d lines/sec, %d skipped, %d failed checksum)",
+                taskCount, lineCount, durationNanos / 1e6, getLinesPerSecond(), getSkippedCount(),
+                checksumFailureCount);
+    }
+}
@@ -0,0 +1,196 @@
+package milo.storage;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import milo.exception.MiloException;
+import milo.task.Task;
+
+/**
+ * Loads large task files by memory-mapping them and parsing chunks of lines concurrently.
+ * The file is cut into chunks at line boundaries, each chunk is parsed on the common
+ * fork-join pool, and the results are concatenated in their original order.
+ */
+final class ParallelTaskFileReader {
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int SCAN_WINDOW_SIZE = 1 << 13;
+
+    private ParallelTaskFileReader() {
+    }
+
+    /**
+     * Reads every task in the file into the given list, using a chunk count suited to
+     * the file size and the number of available cores.
+     *
+     * @param path The file to read.
+     * @param tasks The list the parsed tasks are appended to.
+     * @return A report of the lines read, including skipped ones.
+     * @throws IOException If there is an error reading the file.
+     */
+    static LoadReport read(Path path, ArrayList<Task> tasks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long maxChunks = (long) ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+            long chunkCount = Math.max(size / MAX_CHUNK_SIZE + 1, Math.min(size / MIN_CHUNK_SIZE, maxChunks));
+            return read(channel, (int) Math.max(1, chunkCount), tasks);
+        }
+    }
+
+    /**
+     * Reads every task in the file into the given list, splitting it into the given number of chunks.
+     *
+     * @param path The file to read.
+     * @param chunkCount The number of chunks to split the file into.
+     * @param tasks The list the parsed tasks are appended to.
+     * @return A report of the lines read, including skipped ones.
+     * @throws IOException If there is an error reading the file.
+     */
+    static LoadReport read(Path path, int chunkCount, ArrayList<Task> tasks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel, chunkCount, tasks);
+        }
+    }
+
+    private static LoadReport read(FileChannel channel, int chunkCount, ArrayList<Task> tasks) throws IOException {
+        long startTime = System.nanoTime();
+        long[] boundaries = findBoundaries(channel, chunkCount);
+
+        List<ChunkTask> chunks = new ArrayList<>();
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            if (boundaries[i] < boundaries[i + 1]) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        boundaries[i], boundaries[i + 1] - boundaries[i]);
+                chunks.add(new ChunkTask(buffer, chunks.isEmpty()));
+            }
+        }
+
+        ForkJoinPool.commonPool().invoke(new AllChunksTask(chunks));
+
+        long lineCount = 0;
+        long taskCount = 0;
+        long checksumFailureCount = 0;
+        for (ChunkTask chunk : chunks) {
+            tasks.addAll(chunk.getRawResult());
+            lineCount += chunk.lineCount;
+            taskCount += chunk.getRawResult().size();
+            checksumFailureCount += chunk.checksumFailureCount;
+        }
+        int savedNextId = chunks.isEmpty() ? 0 : chunks.get(0).savedNextId;
+        return new LoadReport(lineCount, taskCount, checksumFailureCount, System.nanoTime() - startTime,
+                savedNextId);
+    }
+
+    /**
+     * Returns chunkCount + 1 offsets, where every inner offset has been moved forward
+     * to just after the next line break so that no line is split across chunks.
+     */
+    private static long[] findBoundaries(FileChannel channel, int chunkCount) throws IOException {
+        long size = channel.size();
+        long[] boundaries = new long[chunkCount + 1];
+        boundaries[chunkCount] = size;
+        for (int i = 1; i < chunkCount; i++) {
+            long target = Math.max(size / chunkCount * i, boundaries[i - 1]);
+            boundaries[i] = nextLineStart(channel, target, size);
+        }
+        return boundaries;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        while (position < size) {
+            int length = (int) Math.min(SCAN_WINDOW_SIZE, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    /**
+     * Forks one task per chunk and waits for all of them.
+     */
+    private static class AllChunksTask extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ChunkTask> chunks;
+
+        AllChunksTask(List<ChunkTask> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        protected Void compute() {
+            ForkJoinTask.invokeAll(chunks);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes, verifies and parses the lines of one chunk.
+     * The chunk at the start of the file also reads the next unused ID from its first line, if it has one.
+     */
+    private static class ChunkTask extends RecursiveTask<ArrayList<Task>> {
+        private static final long serialVersionUID = 1L;
+
+        private final MappedByteBuffer buffer;
+        private final boolean isFirst;
+        private long lineCount;
+        private long checksumFailureCount;
+        private int savedNextId;
+
+        ChunkTask(MappedByteBuffer buffer, boolean isFirst) {
+            this.buffer = buffer;
+            this.isFirst = isFirst;
+        }
+
+        @Override
+        protected ArrayList<Task> compute() {
+            String text = StandardCharsets.UTF_8.decode(buffer).toString();
+            ArrayList<Task> parsed = new ArrayList<>();
+
+            int lineStart = 0;
+            while (lineStart < text.length()) {
+                int lineEnd = text.indexOf('\n', lineStart);
+                if (lineEnd < 0) {
+                    lineEnd = text.length();
+                }
+                int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+                String record = RecordChecksum.open(text.substring(lineStart, contentEnd));
+                if (isFirst && lineStart == 0 && record != null) {
+                    savedNextId = TaskLineParser.parseNextId(record);
+                    if (savedNextId > 0) {
+                        lineStart = lineEnd + 1;
+                        continue;
+                    }
+                }
+                lineCount++;
+                if (record == null) {
+                    checksumFailureCount++;
+                } else {
+                    try {
+                        parsed.add(TaskLineParser.parse(record));
+                    } catch (MiloException e) {
+                        // Ignore corrupted lines
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            return parsed;
+        }
+    }
+}
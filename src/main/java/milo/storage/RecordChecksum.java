@@ -0,0 +1,79 @@
+package milo.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Seals text records with a CRC-32 checksum and verifies them when they are read back.
+ * A sealed record ends with {@code " | #"} followed by eight lower-case hex digits.
+ * Text snapshot lines written before checksums were introduced carry no suffix and are accepted as they are,
+ * but journals have always been sealed, so an unsealed journal line can only be a torn append.
+ */
+final class RecordChecksum {
+    private static final String MARKER = " | #";
+    private static final int HEX_DIGITS = 8;
+    private static final int SUFFIX_LENGTH = MARKER.length() + HEX_DIGITS;
+
+    private RecordChecksum() {
+    }
+
+    /**
+     * Appends the checksum of the record to it.
+     *
+     * @param record The record to be sealed.
+     * @return The record followed by its checksum.
+     */
+    static String seal(String record) {
+        String hex = Long.toHexString(checksum(record, record.length()));
+        StringBuilder sealed = new StringBuilder(record.length() + SUFFIX_LENGTH).append(record).append(MARKER);
+        for (int i = hex.length(); i < HEX_DIGITS; i++) {
+            sealed.append('0');
+        }
+        return sealed.append(hex).toString();
+    }
+
+    /**
+     * Verifies the checksum of a line and returns the record it protects.
+     *
+     * @param line The line as read from disk.
+     * @return The record without its checksum, the line itself if it carries no checksum,
+     *     or null if the checksum does not match.
+     */
+    static String open(String line) {
+        return isSealed(line) ? openSealed(line) : line;
+    }
+
+    /**
+     * Verifies the checksum of a line that must be sealed and returns the record it protects.
+     *
+     * @param line The line as read from disk.
+     * @return The record without its checksum, or null if the line carries no checksum or it does not match.
+     */
+    static String openSealed(String line) {
+        if (!isSealed(line)) {
+            return null;
+        }
+        int recordEnd = line.length() - SUFFIX_LENGTH;
+        long expected = Long.parseLong(line.substring(recordEnd + MARKER.length()), 16);
+        return checksum(line, recordEnd) == expected ? line.substring(0, recordEnd) : null;
+    }
+
+    private static boolean isSealed(String line) {
+        int recordEnd = line.length() - SUFFIX_LENGTH;
+        if (recordEnd < 0 || !line.startsWith(MARKER, recordEnd)) {
+            return false;
+        }
+        for (int i = recordEnd + MARKER.length(); i < line.length(); i++) {
+            if (Character.digit(line.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long checksum(String text, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(text.substring(0, length).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -1,119 +1,564 @@
 package milo.storage;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.BitSet;
+import java.util.List;
 
 import milo.exception.MiloException;
-import milo.task.Deadline;
-import milo.task.Event;
+import milo.metrics.Metrics;
 import milo.task.Task;
-import milo.task.Todo;
+import milo.task.TaskList;
+import milo.task.TaskSnapshot;
 
 /**
  * Handles loading and saving tasks to a file on the hard drive.
+ * Files ending in ".bin" hold a {@link BinarySnapshot}; any other file uses the text format.
+ * In journaled mode, mutations are appended to a {@link Journal} next to the task file
+ * and only folded back into the task file once the journal grows past a threshold.
+ * The task file is never rewritten in place: a new snapshot is written and synced to a
+ * temporary file first and then renamed over it, so a crash leaves either the old or the new file.
  */
 public class Storage {
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final long PARALLEL_LOAD_THRESHOLD = 8L << 20;
+    private static final String TEMP_EXTENSION = ".tmp";
+    /** Never matches the version of a task list, so the next save writes a full snapshot. */
+    private static final long UNSAVED_VERSION = -1;
+
     private final String filePath;
+    private final boolean isBinary;
+    private final Journal journal;
+    private int journalRecordCount;
+    private long savedVersion;
+    private int nextId = 1;
+    private LoadReport lastLoadReport;
+    private WriteBehindPersister persister;
+    private Thread shutdownHook;
+    private boolean isBatching;
 
     /**
      * Constructs a Storage object with a specified file path.
+     * The whole file is rewritten on every save.
      *
      * @param filePath The path of the file where tasks are stored.
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a Storage object with a specified file path, optionally in journaled mode.
+     *
+     * @param filePath The path of the file where tasks are stored.
+     * @param isJournaled True if mutations should be appended to a journal instead of rewriting the file.
+     */
+    public Storage(String filePath, boolean isJournaled) {
         this.filePath = filePath;
+        this.isBinary = filePath.endsWith(BinarySnapshot.FILE_EXTENSION);
+        this.journal = isJournaled ? new Journal(filePath + ".journal") : null;
     }
 
     /**
-     * Loads tasks from the storage file.
+     * Loads tasks from the storage file, replaying any journaled mutations on top of it.
+     * Small files are streamed through a buffered reader, while files over 8 MiB are memory-mapped
+     * and parsed in parallel chunks. Either way, lines that cannot be parsed or fail their checksum
+     * are skipped and counted in the {@link #getLastLoadReport() load report}.
+     * A save interrupted by a crash is first rolled forward or discarded.
      *
      * @return An ArrayList of tasks loaded from the file.
      * @throws MiloException If there is an error creating the file structure.
      */
     public ArrayList<Task> load() throws MiloException {
+        long startNanos = System.nanoTime();
         ArrayList<Task> tasks = new ArrayList<>();
         File file = new File(filePath);
 
         try {
+            recoverInterruptedSave();
             if (!file.exists()) {
                 if (file.getParentFile() != null) {
                     file.getParentFile().mkdirs();
                 }
                 file.createNewFile();
-                return tasks;
+                lastLoadReport = new LoadReport(0, 0, 0);
+            } else if (isBinary) {
+                lastLoadReport = readSnapshot(file.toPath(), tasks);
+            } else {
+                lastLoadReport = readTasks(file.toPath(), tasks);
             }
 
-            Scanner scanner = new Scanner(file);
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                try {
-                    tasks.add(parseTaskFromFile(line));
-                } catch (MiloException e) {
-                    // Ignore corrupted lines
-                }
+            nextId = Math.max(1, lastLoadReport.getSavedNextId());
+            if (journal != null) {
+                TaskList replayed = new TaskList(tasks);
+                replayed.reserveIds(nextId);
+                journalRecordCount = journal.replay(replayed);
+                TaskSnapshot snapshot = replayed.snapshot();
+                tasks = new ArrayList<>(snapshot);
+                nextId = snapshot.getNextId();
             }
-            scanner.close();
         } catch (IOException e) {
             throw new MiloException("Error loading storage file: " + e.getMessage());
         }
+        Metrics.global().recordLoad(tasks.size(), System.nanoTime() - startNanos);
         return tasks;
     }
 
+    /**
+     * Loads the tasks into a TaskList that carries on numbering new tasks from where the saved list left off,
+     * so that the IDs of tasks deleted before the last save are not given out again.
+     *
+     * @return The loaded task list.
+     * @throws MiloException If there is an error creating the file structure.
+     */
+    public TaskList loadTaskList() throws MiloException {
+        TaskList tasks = new TaskList(load());
+        tasks.reserveIds(nextId);
+        return tasks;
+    }
+
+    /**
+     * Returns a summary of the most recent load, including its throughput in lines per second.
+     *
+     * @return The report of the last load, or null if nothing has been loaded yet.
+     */
+    public LoadReport getLastLoadReport() {
+        return lastLoadReport;
+    }
+
     /**
      * Saves the current list of tasks to the storage file.
+     * In journaled mode the mutations are already on disk, so the file is only rewritten
+     * once the journal is long enough to be worth compacting.
      *
      * @param tasks The list of tasks to be saved.
      * @throws IOException If there is an error writing to the file.
      */
     public void save(ArrayList<Task> tasks) throws IOException {
-        Files.createDirectories(Paths.get(filePath).getParent());
-        FileWriter writer = new FileWriter(filePath);
-        for (Task task : tasks) {
-            writer.write(task.toFileFormat() + System.lineSeparator());
+        save(tasks, getFirstUnusedId(tasks));
+    }
+
+    private void save(ArrayList<Task> tasks, int nextId) throws IOException {
+        if (journal != null && journalRecordCount < COMPACTION_THRESHOLD) {
+            return;
         }
-        writer.close();
+        compact(tasks, nextId);
     }
 
     /**
-     * Parses a single line from the storage file into a Task object.
+     * Saves the task list only if it has been modified since the last time it was saved.
+     * Read-only commands therefore never touch the disk, and in journaled mode the tasks are
+     * only copied when the journal is due to be compacted.
      *
-     * @param line The raw string line from the file.
-     * @return The corresponding Task object.
-     * @throws MiloException If the file format is unrecognized or corrupted.
+     * @param tasks The task list to be saved.
+     * @throws IOException If there is an error writing to the file.
      */
-    private Task parseTaskFromFile(String line) throws MiloException {
-        String[] parts = line.split(" \\| ");
-        if (parts.length < 3) {
-            throw new MiloException("Corrupted task line.");
+    public void save(TaskList tasks) throws IOException {
+        if (isBatching) {
+            return;
+        }
+        long version = tasks.getVersion();
+        if (version == savedVersion) {
+            return;
+        }
+        if (journal != null && journalRecordCount < COMPACTION_THRESHOLD) {
+            // The changes are already in the journal
+            savedVersion = version;
+            return;
         }
+        checkpoint(tasks);
+    }
 
-        String type = parts[0];
-        boolean isDone = parts[1].equals("1");
-        String description = parts[2];
+    /**
+     * Defers all persistence until the next {@link #checkpoint(TaskList)} or {@link #endBatch(TaskList)}.
+     * Mutations are neither journaled nor saved in the meantime, so a crash loses the changes
+     * made since the last checkpoint.
+     */
+    public void beginBatch() {
+        isBatching = true;
+    }
 
-        Task task;
-        switch (type) {
-            case "T":
-                task = new Todo(description);
-                break;
-            case "D":
-                task = new Deadline(description, parts[3]);
-                break;
-            case "E":
-                task = new Event(description, parts[3], parts[4]);
-                break;
-            default:
-                throw new MiloException("Unknown task type.");
+    /**
+     * Writes a snapshot of the task list if it has been modified since it was last saved.
+     *
+     * @param tasks The task list to be saved.
+     * @throws IOException If there is an error writing to the file.
+     */
+    public void checkpoint(TaskList tasks) throws IOException {
+        TaskSnapshot snapshot = tasks.snapshot();
+        if (snapshot.getVersion() == savedVersion) {
+            return;
         }
+        compact(new ArrayList<>(snapshot), snapshot.getNextId());
+        savedVersion = snapshot.getVersion();
+    }
+
+    /**
+     * Saves the task list, waits for it to reach the disk and resumes saving after every command.
+     *
+     * @param tasks The task list to be saved.
+     * @throws IOException If there is an error writing to the file.
+     */
+    public void endBatch(TaskList tasks) throws IOException {
+        isBatching = false;
+        checkpoint(tasks);
+        flush();
+    }
+
+    /**
+     * Rewrites the storage file from the given tasks and discards the journal.
+     * With write-behind enabled, a copy of the list is queued and written in the background.
+     *
+     * @param tasks The list of tasks to be saved.
+     * @throws IOException If there is an error writing to the file.
+     */
+    public void compact(ArrayList<Task> tasks) throws IOException {
+        compact(tasks, getFirstUnusedId(tasks));
+    }
+
+    private void compact(ArrayList<Task> tasks, int nextId) throws IOException {
+        try {
+            if (persister != null) {
+                persister.submitSnapshot(new ArrayList<>(tasks), nextId);
+            } else {
+                writeSnapshotNow(tasks, nextId);
+            }
+        } catch (IOException e) {
+            requireSnapshot();
+            throw e;
+        }
+        journalRecordCount = 0;
+    }
+
+    /**
+     * Moves all further writes onto a background thread that groups bursts of changes
+     * into a single commit. Pending changes are also flushed when the JVM shuts down.
+     *
+     * @param maxDelayMillis The longest time a change may wait before it is written.
+     * @param fsyncPolicy Whether each group commit is forced to the storage device.
+     */
+    public void enableWriteBehind(long maxDelayMillis, FsyncPolicy fsyncPolicy) {
+        assert persister == null : "Write-behind should only be enabled once";
+        WriteBehindPersister writeBehind = new WriteBehindPersister(this, maxDelayMillis, fsyncPolicy);
+        persister = writeBehind;
+        shutdownHook = new Thread(() -> {
+            try {
+                writeBehind.close();
+            } catch (IOException e) {
+                System.err.println("Failed to save tasks: " + e.getMessage());
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Writes every pending change to disk and stops the background writer, if there is one.
+     * The storage must not be used afterwards.
+     *
+     * @throws IOException If a background write failed.
+     */
+    public void close() throws IOException {
+        if (persister == null) {
+            return;
+        }
+        try {
+            persister.close();
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down and the hook is running or about to
+            }
+        }
+    }
+
+    /**
+     * Blocks until every change made so far has been written to disk.
+     *
+     * @throws IOException If a background write failed.
+     */
+    public void flush() throws IOException {
+        if (persister == null) {
+            return;
+        }
+        try {
+            persister.flush();
+        } catch (IOException e) {
+            requireSnapshot();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the addition of a task at the end of the list.
+     *
+     * @param task The task that was added.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public void logAdd(Task task) throws IOException {
+        appendRecord(Journal.ADD, task.toFileFormat());
+    }
+
+    /**
+     * Records a change to the completion status of a task.
+     *
+     * @param index The zero-based index of the task.
+     * @param isDone True if the task was marked as done, false if it was unmarked.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public void logStatusChange(int index, boolean isDone) throws IOException {
+        appendRecord(isDone ? Journal.MARK : Journal.UNMARK, String.valueOf(index));
+    }
 
-        if (isDone) {
-            task.markAsDone();
+    /**
+     * Records a change to the completion status of several tasks in a single record.
+     *
+     * @param indices The zero-based indices of the tasks.
+     * @param isDone True if the tasks were marked as done, false if they were unmarked.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public void logStatusChange(BitSet indices, boolean isDone) throws IOException {
+        appendRecord(isDone ? Journal.MARK : Journal.UNMARK, Journal.formatIndices(indices));
+    }
+
+    /**
+     * Records the deletion of a task.
+     *
+     * @param index The zero-based index of the removed task.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public void logDelete(int index) throws IOException {
+        appendRecord(Journal.DELETE, String.valueOf(index));
+    }
+
+    /**
+     * Records the deletion of several tasks in a single record.
+     *
+     * @param indices The zero-based indices the removed tasks had before the deletion.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public void logDelete(BitSet indices) throws IOException {
+        appendRecord(Journal.DELETE, Journal.formatIndices(indices));
+    }
+
+    /**
+     * Records a reordering of the list.
+     *
+     * @param sortType Either "name" or "date".
+     * @throws IOException If there is an error writing to the journal.
+     */
+    public void logSort(String sortType) throws IOException {
+        appendRecord(Journal.SORT, sortType);
+    }
+
+    /**
+     * Copies the tasks in one storage file into another, converting between the text
+     * and binary formats according to the file extensions.
+     *
+     * @param sourcePath The path of the file to read.
+     * @param targetPath The path of the file to write.
+     * @throws MiloException If the source file cannot be loaded.
+     * @throws IOException If there is an error writing the target file.
+     */
+    public static void convert(String sourcePath, String targetPath) throws MiloException, IOException {
+        Storage source = new Storage(sourcePath);
+        ArrayList<Task> tasks = source.load();
+        new Storage(targetPath).compact(tasks, source.nextId);
+    }
+
+    private void appendRecord(String type, String argument) throws IOException {
+        if (journal == null || isBatching) {
+            return;
+        }
+        journalRecordCount++;
+        try {
+            if (persister != null) {
+                persister.submitRecord(Journal.format(type, argument));
+            } else {
+                journal.append(type, argument);
+            }
+        } catch (IOException e) {
+            requireSnapshot();
+            throw e;
+        }
+    }
+
+    /**
+     * Makes the next save write a full snapshot after a failed write.
+     * The journal may now be missing records, and since records refer to positions in the list,
+     * appending more of them would replay against the wrong tasks.
+     */
+    private void requireSnapshot() {
+        savedVersion = UNSAVED_VERSION;
+        journalRecordCount = COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Appends already formatted records to the journal straight away.
+     *
+     * @param records The records to append.
+     * @param isSynced True if the records must reach the storage device before returning.
+     * @throws IOException If there is an error writing to the journal.
+     */
+    void appendRecordsNow(List<String> records, boolean isSynced) throws IOException {
+        if (journal != null) {
+            journal.appendAll(records, isSynced);
+        }
+    }
+
+    /**
+     * Replaces the storage file with a snapshot of the tasks straight away and discards the journal.
+     * The snapshot is synced to a temporary file before the journal is retired and the temporary
+     * file is renamed over the storage file, which {@link #recoverInterruptedSave()} relies on.
+     *
+     * @param tasks The tasks to be written.
+     * @param nextId The ID the next new task should get, saved so that IDs are never given out twice.
+     * @throws IOException If there is an error writing to the file.
+     */
+    void writeSnapshotNow(ArrayList<Task> tasks, int nextId) throws IOException {
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temp = getTempPath();
+        long startNanos = System.nanoTime();
+        long byteCount;
+        Files.createDirectories(target.getParent());
+        try (FileOutputStream output = new FileOutputStream(temp.toFile())) {
+            if (isBinary) {
+                BinarySnapshot.write(output, tasks, nextId);
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                writer.write(RecordChecksum.seal(TaskLineParser.formatNextId(nextId)));
+                writer.write(System.lineSeparator());
+                for (Task task : tasks) {
+                    writer.write(RecordChecksum.seal(task.toFileFormat()));
+                    writer.write(System.lineSeparator());
+                }
+                writer.flush();
+            }
+            output.getFD().sync();
+            byteCount = output.getChannel().size();
+        }
+        Metrics.global().recordSnapshotWrite(byteCount, System.nanoTime() - startNanos);
+
+        if (journal != null) {
+            journal.retire();
+        }
+        replace(temp, target);
+        if (journal != null) {
+            journal.discardRetired();
+        }
+    }
+
+    /**
+     * Finishes or undoes a snapshot replacement that was cut short.
+     * A retired journal means the temporary file was complete and already includes the journal,
+     * so it is moved into place. Otherwise the temporary file may be partial and is deleted.
+     */
+    private void recoverInterruptedSave() throws IOException {
+        Path temp = getTempPath();
+        boolean isRetired = journal != null && journal.hasRetired();
+        if (isRetired && Files.exists(temp)) {
+            replace(temp, Paths.get(filePath).toAbsolutePath());
+        } else {
+            Files.deleteIfExists(temp);
+        }
+        if (isRetired) {
+            journal.discardRetired();
+        }
+    }
+
+    /**
+     * Returns the ID after the highest one among the tasks, for lists saved without a TaskList to ask.
+     */
+    private static int getFirstUnusedId(List<Task> tasks) {
+        int highestId = 0;
+        for (Task task : tasks) {
+            highestId = Math.max(highestId, task.getId());
+        }
+        return highestId + 1;
+    }
+
+    private Path getTempPath() {
+        return Paths.get(filePath + TEMP_EXTENSION).toAbsolutePath();
+    }
+
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.getParent());
+    }
+
+    /**
+     * Makes a rename durable. Not every platform can open a directory, so failures are ignored.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort only
+        }
+    }
+
+    private static LoadReport readSnapshot(Path path, ArrayList<Task> tasks) throws IOException, MiloException {
+        if (Files.size(path) == 0) {
+            return new LoadReport(0, 0, 0);
+        }
+        return BinarySnapshot.read(path, tasks);
+    }
+
+    private static LoadReport readTasks(Path path, ArrayList<Task> tasks) throws IOException {
+        if (Files.size(path) >= PARALLEL_LOAD_THRESHOLD) {
+            return ParallelTaskFileReader.read(path, tasks);
+        }
+
+        long startTime = System.nanoTime();
+        long lineCount = 0;
+        long checksumFailureCount = 0;
+        int savedNextId = 0;
+        boolean isFirstLine = true;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String record = RecordChecksum.open(line);
+                if (isFirstLine) {
+                    isFirstLine = false;
+                    savedNextId = record == null ? 0 : TaskLineParser.parseNextId(record);
+                    if (savedNextId > 0) {
+                        continue;
+                    }
+                }
+                lineCount++;
+                if (record == null) {
+                    checksumFailureCount++;
+                    continue;
+                }
+                try {
+                    tasks.add(TaskLineParser.parse(record));
+                } catch (MiloException e) {
+                    // Ignore corrupted lines
+                }
+            }
         }
-        return task;
+        return new LoadReport(lineCount, tasks.size(), checksumFailureCount, System.nanoTime() - startTime,
+                savedNextId);
     }
-}
\ No newline at end of file
+}
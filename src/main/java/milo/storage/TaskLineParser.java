@@ -0,0 +1,174 @@
+package milo.storage;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import milo.exception.MiloException;
+import milo.task.Deadline;
+import milo.task.Event;
+import milo.task.Task;
+import milo.task.Todo;
+
+/**
+ * Parses lines in the storage text format, such as {@code D#12 | 0 | return book | 2026-06-15}.
+ * The type code is followed by '#' and the task's ID; lines saved before IDs were kept have no ID.
+ * A file may start with a {@code N | 13} line recording the ID the next new task should get.
+ * Fields are located by scanning for the separator rather than splitting on a regex,
+ * and dates are read straight from their character offsets.
+ */
+final class TaskLineParser {
+    private static final String SEPARATOR = " | ";
+    private static final String NEXT_ID_PREFIX = "N" + SEPARATOR;
+    private static final int ISO_DATE_LENGTH = 10;
+    private static final int MAX_ID_DIGITS = 9;
+
+    private TaskLineParser() {
+    }
+
+    /**
+     * Parses a single line from the storage file into a Task object.
+     *
+     * @param line The raw string line from the file.
+     * @return The corresponding Task object.
+     * @throws MiloException If the line format is unrecognized or corrupted.
+     */
+    static Task parse(String line) throws MiloException {
+        int typeEnd = line.indexOf(SEPARATOR);
+        int statusEnd = typeEnd < 0 ? -1 : line.indexOf(SEPARATOR, typeEnd + SEPARATOR.length());
+        if (typeEnd < 1 || statusEnd < 0 || (typeEnd > 1 && line.charAt(1) != '#')) {
+            throw new MiloException("Corrupted task line.");
+        }
+        int id = typeEnd == 1 ? 0 : parseId(line, 2, typeEnd);
+
+        boolean isDone = statusEnd == typeEnd + SEPARATOR.length() + 1 && line.charAt(statusEnd - 1) == '1';
+        int descriptionStart = statusEnd + SEPARATOR.length();
+
+        Task task;
+        switch (line.charAt(0)) {
+            case 'T':
+                task = new Todo(line.substring(descriptionStart));
+                break;
+            case 'D': {
+                int byStart = fieldStartBefore(line, line.length(), descriptionStart);
+                task = new Deadline(line.substring(descriptionStart, byStart - SEPARATOR.length()),
+                        parseDate(line, byStart, line.length()));
+                break;
+            }
+            case 'E': {
+                int toStart = fieldStartBefore(line, line.length(), descriptionStart);
+                int fromStart = fieldStartBefore(line, toStart - SEPARATOR.length(), descriptionStart);
+                task = new Event(line.substring(descriptionStart, fromStart - SEPARATOR.length()),
+                        parseDate(line, fromStart, toStart - SEPARATOR.length()),
+                        parseDate(line, toStart, line.length()));
+                break;
+            }
+            default:
+                throw new MiloException("Unknown task type.");
+        }
+
+        if (isDone) {
+            task.markAsDone();
+        }
+        task.setId(id);
+        return task;
+    }
+
+    /**
+     * Returns the line that records the ID the next new task should get.
+     *
+     * @param nextId The next unused ID.
+     * @return The line, without a line separator.
+     */
+    static String formatNextId(int nextId) {
+        return NEXT_ID_PREFIX + nextId;
+    }
+
+    /**
+     * Reads the next unused ID from a line written by {@link #formatNextId(int)}.
+     *
+     * @param line The line, without its checksum.
+     * @return The next unused ID, or 0 if the line does not record one.
+     */
+    static int parseNextId(String line) {
+        if (!line.startsWith(NEXT_ID_PREFIX)) {
+            return 0;
+        }
+        try {
+            return parseId(line, NEXT_ID_PREFIX.length(), line.length());
+        } catch (MiloException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Parses an ISO-8601 date (yyyy-mm-dd) from the given region of the text,
+     * ignoring surrounding spaces.
+     *
+     * @param text The text containing the date.
+     * @param start The index of the first character of the region.
+     * @param end The index after the last character of the region.
+     * @return The parsed date.
+     * @throws MiloException If the region does not hold a valid date.
+     */
+    static LocalDate parseDate(CharSequence text, int start, int end) throws MiloException {
+        while (start < end && text.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end - start != ISO_DATE_LENGTH || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            throw new MiloException("Corrupted date.");
+        }
+
+        int year = parseDigits(text, start, start + 4);
+        int month = parseDigits(text, start + 5, start + 7);
+        int day = parseDigits(text, start + 8, start + 10);
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new MiloException("Corrupted date.");
+        }
+    }
+
+    private static int parseDigits(CharSequence text, int start, int end) throws MiloException {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new MiloException("Corrupted date.");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int parseId(String line, int start, int end) throws MiloException {
+        if (end <= start || end - start > MAX_ID_DIGITS) {
+            throw new MiloException("Corrupted task ID.");
+        }
+        int id = 0;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new MiloException("Corrupted task ID.");
+            }
+            id = id * 10 + (c - '0');
+        }
+        if (id == 0) {
+            throw new MiloException("Corrupted task ID.");
+        }
+        return id;
+    }
+
+    /**
+     * Returns the start of the field that ends at {@code end}, which must begin after {@code lowerBound}.
+     */
+    private static int fieldStartBefore(String line, int end, int lowerBound) throws MiloException {
+        int separator = line.lastIndexOf(SEPARATOR, end - SEPARATOR.length());
+        if (separator < lowerBound) {
+            throw new MiloException("Corrupted task line.");
+        }
+        return separator + SEPARATOR.length();
+    }
+}
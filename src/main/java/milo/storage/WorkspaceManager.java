@@ -0,0 +1,230 @@
+package milo.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import milo.exception.MiloException;
+import milo.task.TaskList;
+
+/**
+ * Keeps Milo's named task lists, called workspaces, each saved in its own file.
+ * A workspace is loaded the first time it is used and stays in memory while it is among the most recently used.
+ * Once the loaded workspaces hold more tasks than the memory budget allows, or there are too many of them,
+ * the least recently used ones are saved, flushed to disk and dropped. The active workspace is never dropped.
+ * The manager must only be used from one thread at a time, except for {@link #getActive()}.
+ */
+public class WorkspaceManager {
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final String defaultName;
+    private final Path defaultPath;
+    private final Path directory;
+    private final String fileExtension;
+    private final long taskBudget;
+    private final int maxLoadedCount;
+    private final Function<Path, Storage> storageFactory;
+    // Iterates from the least to the most recently used workspace
+    private final LinkedHashMap<String, Workspace> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Workspace active;
+    private boolean isBatching;
+
+    /**
+     * Represents a task list together with the storage it is saved in.
+     */
+    public static final class Workspace {
+        private final String name;
+        private final Storage storage;
+        private final TaskList tasks;
+        private final String loadError;
+
+        private Workspace(String name, Storage storage, TaskList tasks, String loadError) {
+            this.name = name;
+            this.storage = storage;
+            this.tasks = tasks;
+            this.loadError = loadError;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Storage getStorage() {
+            return storage;
+        }
+
+        public TaskList getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Returns why the saved tasks could not be loaded, in which case the workspace started out empty.
+         *
+         * @return The error message, or null if the tasks were loaded.
+         */
+        public String getLoadError() {
+            return loadError;
+        }
+    }
+
+    /**
+     * Constructs a WorkspaceManager. No workspace is loaded until one is used.
+     *
+     * @param defaultName The name of the workspace kept in the default file.
+     * @param defaultPath The file of the default workspace, whose extension every other workspace file shares.
+     * @param directory The directory holding the files of the other workspaces.
+     * @param taskBudget The number of tasks the loaded workspaces may hold before cold ones are dropped.
+     * @param maxLoadedCount The number of workspaces that may be loaded at once.
+     * @param storageFactory Creates the storage for a workspace file.
+     */
+    public WorkspaceManager(String defaultName, Path defaultPath, Path directory, long taskBudget,
+            int maxLoadedCount, Function<Path, Storage> storageFactory) {
+        assert maxLoadedCount >= 1 : "At least the active workspace should stay loaded";
+        String fileName = defaultPath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.defaultName = defaultName;
+        this.defaultPath = defaultPath;
+        this.directory = directory;
+        this.fileExtension = dot < 0 ? "" : fileName.substring(dot);
+        this.taskBudget = taskBudget;
+        this.maxLoadedCount = maxLoadedCount;
+        this.storageFactory = storageFactory;
+    }
+
+    /**
+     * Makes the named workspace the active one, loading it first if it is not in memory.
+     *
+     * @param name The name of the workspace. Names other than the default one may only use letters,
+     *     digits, '-' and '_'.
+     * @return The workspace, now active.
+     * @throws MiloException If the name is not valid.
+     * @throws IOException If a workspace dropped to make room could not be saved.
+     */
+    public Workspace use(String name) throws MiloException, IOException {
+        if (!name.equals(defaultName) && !NAME_PATTERN.matcher(name).matches()) {
+            throw new MiloException("List names may only use letters, digits, '-' and '_', up to 64 of them.");
+        }
+
+        Workspace workspace = loaded.get(name);
+        if (workspace == null) {
+            workspace = load(name);
+            loaded.put(name, workspace);
+        }
+        active = workspace;
+        evictColdWorkspaces();
+        return workspace;
+    }
+
+    /**
+     * Returns the active workspace. May be called from any thread.
+     *
+     * @return The workspace commands apply to.
+     */
+    public Workspace getActive() {
+        assert active != null : "A workspace should be in use";
+        return active;
+    }
+
+    /**
+     * Returns the number of workspaces currently held in memory.
+     *
+     * @return The number of loaded workspaces.
+     */
+    public int getLoadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * Defers saving in every loaded workspace, and in those loaded later, until the batch ends.
+     *
+     * @see Storage#beginBatch()
+     */
+    public void beginBatch() {
+        isBatching = true;
+        for (Workspace workspace : loaded.values()) {
+            workspace.storage.beginBatch();
+        }
+    }
+
+    /**
+     * Saves every loaded workspace that has changed since it was last saved.
+     *
+     * @throws IOException If a workspace could not be saved.
+     */
+    public void checkpoint() throws IOException {
+        for (Workspace workspace : loaded.values()) {
+            workspace.storage.checkpoint(workspace.tasks);
+        }
+    }
+
+    /**
+     * Saves every loaded workspace, waits for the saves to reach the disk and resumes saving after every command.
+     *
+     * @throws IOException If a workspace could not be saved.
+     */
+    public void endBatch() throws IOException {
+        isBatching = false;
+        for (Workspace workspace : loaded.values()) {
+            workspace.storage.endBatch(workspace.tasks);
+        }
+    }
+
+    /**
+     * Saves every loaded workspace, waits for the saves to reach the disk and stops their background writers.
+     * The manager must not be used afterwards.
+     *
+     * @throws IOException If a workspace could not be saved.
+     */
+    public void close() throws IOException {
+        try {
+            endBatch();
+        } finally {
+            for (Workspace workspace : loaded.values()) {
+                workspace.storage.close();
+            }
+            loaded.clear();
+        }
+    }
+
+    private Workspace load(String name) {
+        Path path = name.equals(defaultName) ? defaultPath : directory.resolve(name + fileExtension);
+        Storage storage = storageFactory.apply(path);
+        TaskList tasks;
+        String loadError = null;
+        try {
+            tasks = storage.loadTaskList();
+        } catch (MiloException e) {
+            tasks = new TaskList();
+            loadError = e.getMessage();
+        }
+        if (isBatching) {
+            storage.beginBatch();
+        }
+        return new Workspace(name, storage, tasks, loadError);
+    }
+
+    private void evictColdWorkspaces() throws IOException {
+        long loadedTaskCount = 0;
+        for (Workspace workspace : loaded.values()) {
+            loadedTaskCount += workspace.tasks.getSize();
+        }
+
+        Iterator<Workspace> leastRecentFirst = loaded.values().iterator();
+        while ((loadedTaskCount > taskBudget || loaded.size() > maxLoadedCount) && leastRecentFirst.hasNext()) {
+            Workspace workspace = leastRecentFirst.next();
+            if (workspace == active) {
+                continue;
+            }
+            leastRecentFirst.remove();
+            loadedTaskCount -= workspace.tasks.getSize();
+            try {
+                workspace.storage.endBatch(workspace.tasks);
+            } finally {
+                workspace.storage.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package milo.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import milo.task.Task;
+
+/**
+ * Performs the disk writes of a {@link Storage} on a background thread.
+ * Journal records and snapshot requests are queued in the order they are made and written
+ * out together after at most a configurable delay, so a burst of commands costs one write
+ * (and at most one fsync) instead of one per command. A snapshot supersedes every record and
+ * snapshot queued before it, so only the latest snapshot in a burst is ever written.
+ * Once a commit fails, the journal may be missing records, so no further records are appended
+ * until a snapshot has been written; the failure is reported to the next caller, which is expected
+ * to queue that snapshot.
+ */
+class WriteBehindPersister {
+    private final Storage storage;
+    private final long maxDelayMillis;
+    private final FsyncPolicy fsyncPolicy;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+    private ArrayList<Task> pendingSnapshot;
+    private int pendingNextId;
+    private ArrayList<String> pendingRecords = new ArrayList<>();
+    private boolean isCommitScheduled;
+    private boolean isJournalBroken;
+    private IOException failure;
+
+    /**
+     * Constructs a WriteBehindPersister that writes through the given storage.
+     *
+     * @param storage The storage performing the actual writes.
+     * @param maxDelayMillis The longest time a change may wait before it is written.
+     * @param fsyncPolicy Whether each group commit is forced to the device.
+     */
+    WriteBehindPersister(Storage storage, long maxDelayMillis, FsyncPolicy fsyncPolicy) {
+        this.storage = storage;
+        this.maxDelayMillis = maxDelayMillis;
+        this.fsyncPolicy = fsyncPolicy;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "milo-persister");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a formatted journal record.
+     *
+     * @param record The record to append.
+     * @throws IOException If an earlier background write failed.
+     */
+    void submitRecord(String record) throws IOException {
+        synchronized (lock) {
+            rethrowFailure();
+            pendingRecords.add(record);
+            scheduleCommit();
+        }
+    }
+
+    /**
+     * Queues a snapshot of the task list, replacing any snapshot and records still waiting.
+     *
+     * @param tasks A copy of the tasks that the caller will not modify afterwards.
+     * @param nextId The ID the next new task should get.
+     * @throws IOException If an earlier background write failed.
+     */
+    void submitSnapshot(ArrayList<Task> tasks, int nextId) throws IOException {
+        synchronized (lock) {
+            rethrowFailure();
+            pendingSnapshot = tasks;
+            pendingNextId = nextId;
+            pendingRecords.clear();
+            scheduleCommit();
+        }
+    }
+
+    /**
+     * Writes everything queued so far and waits for it to reach the disk.
+     *
+     * @throws IOException If a background write failed.
+     */
+    void flush() throws IOException {
+        Future<?> commit = executor.submit(this::commit);
+        try {
+            commit.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving tasks.");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to save tasks: " + e.getCause().getMessage());
+        }
+        synchronized (lock) {
+            rethrowFailure();
+        }
+    }
+
+    /**
+     * Flushes everything queued so far and stops the background thread.
+     *
+     * @throws IOException If a background write failed.
+     */
+    void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void scheduleCommit() {
+        if (!isCommitScheduled) {
+            isCommitScheduled = true;
+            executor.schedule(this::commit, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        if (failure != null) {
+            IOException e = failure;
+            failure = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Takes everything queued so far and writes it. Only ever runs on the background thread.
+     */
+    private void commit() {
+        ArrayList<Task> snapshot;
+        int nextId;
+        ArrayList<String> records;
+        synchronized (lock) {
+            snapshot = pendingSnapshot;
+            nextId = pendingNextId;
+            records = pendingRecords;
+            pendingSnapshot = null;
+            pendingRecords = new ArrayList<>();
+            isCommitScheduled = false;
+        }
+
+        boolean isSynced = fsyncPolicy == FsyncPolicy.EVERY_COMMIT;
+        try {
+            if (snapshot != null) {
+                storage.writeSnapshotNow(snapshot, nextId);
+                isJournalBroken = false;
+            }
+            if (!isJournalBroken) {
+                storage.appendRecordsNow(records, isSynced);
+            }
+        } catch (IOException e) {
+            isJournalBroken = true;
+            synchronized (lock) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package milo.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+/**
+ * Sorted index from due dates to the deadlines that fall on them.
+ * Events span a range of dates and are indexed separately by {@link EventIntervalTree}.
+ */
+class DateIndex {
+    private final TreeMap<LocalDate, TreeMap<Integer, Task>> tasksByDate = new TreeMap<>();
+
+    /**
+     * Indexes the task under its due date, if it is a deadline.
+     *
+     * @param task The task to be indexed.
+     */
+    void add(Task task) {
+        LocalDate date = dateOf(task);
+        if (date != null) {
+            tasksByDate.computeIfAbsent(date, k -> new TreeMap<>()).put(task.getId(), task);
+        }
+    }
+
+    /**
+     * Removes the task from the index.
+     *
+     * @param task The task to be removed.
+     */
+    void remove(Task task) {
+        LocalDate date = dateOf(task);
+        if (date == null) {
+            return;
+        }
+        TreeMap<Integer, Task> onDate = tasksByDate.get(date);
+        if (onDate == null) {
+            return;
+        }
+        onDate.remove(task.getId());
+        if (onDate.isEmpty()) {
+            tasksByDate.remove(date);
+        }
+    }
+
+    /**
+     * Returns the tasks indexed under the given date.
+     *
+     * @param date The date to look up.
+     * @return The deadlines on that date, in the order they were added.
+     */
+    ArrayList<Task> findOn(LocalDate date) {
+        TreeMap<Integer, Task> onDate = tasksByDate.get(date);
+        return onDate == null ? new ArrayList<>() : new ArrayList<>(onDate.values());
+    }
+
+    /**
+     * Returns the tasks indexed under any date in the inclusive range.
+     *
+     * @param from The first date of the range.
+     * @param to The last date of the range.
+     * @return The deadlines in the range, ordered by date.
+     */
+    ArrayList<Task> findBetween(LocalDate from, LocalDate to) {
+        ArrayList<Task> result = new ArrayList<>();
+        for (TreeMap<Integer, Task> onDate : tasksByDate.subMap(from, true, to, true).values()) {
+            result.addAll(onDate.values());
+        }
+        return result;
+    }
+
+    private static LocalDate dateOf(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy();
+        }
+        return null;
+    }
+}
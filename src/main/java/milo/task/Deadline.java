@@ -1,8 +1,6 @@
 package milo.task;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a task with a specific deadline.
@@ -21,6 +19,17 @@ public class Deadline extends Task {
         this.by = LocalDate.parse(by.trim());
     }
 
+    /**
+     * Constructs a Deadline task with a description and an already parsed deadline date.
+     *
+     * @param description The description of the task.
+     * @param by The deadline date.
+     */
+    public Deadline(String description, LocalDate by) {
+        super(description);
+        this.by = by;
+    }
+
     /**
      * Returns the deadline date of the task.
      *
@@ -31,18 +40,17 @@ public class Deadline extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (by: "
-                + by.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ")";
+    protected String render() {
+        return "[D]" + super.render() + " (by: " + by.format(DISPLAY_DATE_FORMAT) + ")";
     }
 
     @Override
     public String toFileFormat() {
-        return "D | " + super.toFileFormat() + " | " + by;
+        return formatType("D") + " | " + super.toFileFormat() + " | " + by;
     }
 
     @Override
-    public LocalDateTime getDateTime() {
-        return by.atStartOfDay();
+    long getSortDay() {
+        return by.toEpochDay();
     }
-}
\ No newline at end of file
+}
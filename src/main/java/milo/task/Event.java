@@ -1,8 +1,6 @@
 package milo.task;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.LocalDateTime;
 
 /**
  * Represents a task that occurs during a specific time period.
@@ -24,6 +22,19 @@ public class Event extends Task {
         this.to = LocalDate.parse(to.trim());
     }
 
+    /**
+     * Constructs an Event task with a description and already parsed start and end dates.
+     *
+     * @param description The description of the event.
+     * @param from The start date.
+     * @param to The end date.
+     */
+    public Event(String description, LocalDate from, LocalDate to) {
+        super(description);
+        this.from = from;
+        this.to = to;
+    }
+
     /**
      * Returns the start date of the event.
      *
@@ -33,20 +44,28 @@ public class Event extends Task {
         return this.from;
     }
 
+    /**
+     * Returns the end date of the event.
+     *
+     * @return The LocalDate representing the end of the event.
+     */
+    public LocalDate getTo() {
+        return this.to;
+    }
+
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + " (from: "
-                + from.format(DateTimeFormatter.ofPattern("MMM dd yyyy"))
-                + " to: " + to.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ")";
+    protected String render() {
+        return "[E]" + super.render() + " (from: " + from.format(DISPLAY_DATE_FORMAT)
+                + " to: " + to.format(DISPLAY_DATE_FORMAT) + ")";
     }
 
     @Override
     public String toFileFormat() {
-        return "E | " + super.toFileFormat() + " | " + from + " | " + to;
+        return formatType("E") + " | " + super.toFileFormat() + " | " + from + " | " + to;
     }
 
     @Override
-    public LocalDateTime getDateTime() {
-        return from.atStartOfDay();
+    long getSortDay() {
+        return from.toEpochDay();
     }
-}
\ No newline at end of file
+}
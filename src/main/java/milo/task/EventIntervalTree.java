@@ -0,0 +1,204 @@
+package milo.task;
+
+import java.util.ArrayList;
+
+/**
+ * Augmented interval tree over the date ranges of events.
+ * Nodes are ordered by start day and task id and balanced as an AVL tree, and every node
+ * records the latest end day in its subtree so that whole subtrees can be skipped
+ * when they cannot overlap the query. Stabbing and overlap queries run in O(log n + k).
+ */
+class EventIntervalTree {
+    private Node root;
+    private int size;
+
+    private static class Node {
+        final long start;
+        final long end;
+        final int id;
+        final Event event;
+        long maxEnd;
+        int height;
+        Node left;
+        Node right;
+
+        Node(Event event) {
+            this.start = event.getFrom().toEpochDay();
+            this.end = event.getTo().toEpochDay();
+            this.id = event.getId();
+            this.event = event;
+            this.maxEnd = end;
+            this.height = 1;
+        }
+    }
+
+    /**
+     * Adds the event to the tree.
+     *
+     * @param event The event to be added.
+     */
+    void add(Event event) {
+        root = insert(root, new Node(event));
+        size++;
+    }
+
+    /**
+     * Removes the event from the tree, if present.
+     *
+     * @param event The event to be removed.
+     */
+    void remove(Event event) {
+        root = delete(root, event.getFrom().toEpochDay(), event.getId());
+    }
+
+    /**
+     * Returns the number of events in the tree.
+     *
+     * @return The number of events.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds the events whose range includes the given day.
+     *
+     * @param day The epoch day to look up.
+     * @return The events in progress on that day, ordered by start date.
+     */
+    ArrayList<Event> findContaining(long day) {
+        return findOverlapping(day, day);
+    }
+
+    /**
+     * Finds the events whose range overlaps the inclusive range [from, to].
+     *
+     * @param from The first epoch day of the range.
+     * @param to The last epoch day of the range.
+     * @return The overlapping events, ordered by start date.
+     */
+    ArrayList<Event> findOverlapping(long from, long to) {
+        ArrayList<Event> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    private void collect(Node node, long from, long to, ArrayList<Event> result) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start > to) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (node.end >= from) {
+            result.add(node.event);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static int compare(long start, int id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Integer.compare(id, node.id);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node delete(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.end;
+        if (node.left != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,132 @@
+package milo.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index from the words in task descriptions to the tasks containing them.
+ * Words are kept in sorted order so that a keyword also matches every word it is a prefix of.
+ */
+class KeywordIndex {
+    private final TreeMap<String, TreeMap<Integer, Task>> postings = new TreeMap<>();
+
+    /**
+     * Indexes every word in the description of the task.
+     *
+     * @param task The task to be indexed.
+     */
+    void add(Task task) {
+        for (String token : tokenize(task.getDescription())) {
+            postings.computeIfAbsent(token, k -> new TreeMap<>()).put(task.getId(), task);
+        }
+    }
+
+    /**
+     * Removes the task from the posting list of every word in its description.
+     *
+     * @param task The task to be removed.
+     */
+    void remove(Task task) {
+        for (String token : tokenize(task.getDescription())) {
+            TreeMap<Integer, Task> posting = postings.get(token);
+            if (posting == null) {
+                continue;
+            }
+            posting.remove(task.getId());
+            if (posting.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks that match all of the given keywords.
+     *
+     * @param keywords The keywords to search for.
+     * @return The matching tasks, in the order they were added.
+     */
+    ArrayList<Task> findAll(List<String> keywords) {
+        if (keywords.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<TreeMap<Integer, Task>> matches = new ArrayList<>();
+        for (String keyword : keywords) {
+            TreeMap<Integer, Task> match = lookup(keyword);
+            if (match.isEmpty()) {
+                return new ArrayList<>();
+            }
+            matches.add(match);
+        }
+
+        // Walk the smallest set and probe the others
+        matches.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        ArrayList<Task> result = new ArrayList<>();
+        for (Map.Entry<Integer, Task> entry : matches.get(0).entrySet()) {
+            boolean isInAll = true;
+            for (int i = 1; i < matches.size() && isInAll; i++) {
+                isInAll = matches.get(i).containsKey(entry.getKey());
+            }
+            if (isInAll) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the tasks that match at least one of the given keywords.
+     *
+     * @param keywords The keywords to search for.
+     * @return The matching tasks, in the order they were added.
+     */
+    ArrayList<Task> findAny(List<String> keywords) {
+        TreeMap<Integer, Task> union = new TreeMap<>();
+        for (String keyword : keywords) {
+            union.putAll(lookup(keyword));
+        }
+        return new ArrayList<>(union.values());
+    }
+
+    /**
+     * Returns the tasks containing a word that starts with the keyword, keyed by task id.
+     */
+    private TreeMap<Integer, Task> lookup(String keyword) {
+        String prefix = keyword.toLowerCase();
+        NavigableMap<String, TreeMap<Integer, Task>> range =
+                postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        TreeMap<Integer, Task> merged = new TreeMap<>();
+        for (TreeMap<Integer, Task> posting : range.values()) {
+            merged.putAll(posting);
+        }
+        return merged;
+    }
+
+    /**
+     * Splits text into lower-case words made up of letters and digits.
+     *
+     * @param text The text to be split.
+     * @return The words found in the text.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
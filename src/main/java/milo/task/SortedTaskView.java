@@ -0,0 +1,43 @@
+package milo.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Keeps the tasks of a TaskList in a fixed sort order as they are added and removed,
+ * so that sorting the list only needs to read the view instead of comparing every task again.
+ * Tasks are compared by keys computed once per task, with the ID breaking ties.
+ */
+final class SortedTaskView {
+    static final Comparator<Task> BY_NAME = Comparator.comparing(Task::getSortName).thenComparingInt(Task::getId);
+    static final Comparator<Task> BY_DATE = Comparator.comparingLong(Task::getSortDay).thenComparingInt(Task::getId);
+
+    private final TreeSet<Task> tasks;
+
+    /**
+     * Constructs an empty view.
+     *
+     * @param order The order to keep the tasks in, which must not change while a task is in the view.
+     */
+    SortedTaskView(Comparator<Task> order) {
+        this.tasks = new TreeSet<>(order);
+    }
+
+    void add(Task task) {
+        tasks.add(task);
+    }
+
+    void remove(Task task) {
+        tasks.remove(task);
+    }
+
+    /**
+     * Returns the tasks in sorted order as a new list.
+     *
+     * @return A list of the tasks.
+     */
+    ArrayList<Task> toList() {
+        return new ArrayList<>(tasks);
+    }
+}
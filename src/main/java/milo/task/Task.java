@@ -1,13 +1,20 @@
 package milo.task;
-import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a generic task in the Milo application.
  * Serves as a base class for specific task types like Todo, Deadline, and Event.
  */
-public class Task {
+public class Task implements Cloneable {
+    /** The format in which dates are shown to the user, shared because building a formatter is costly. */
+    public static final DateTimeFormatter DISPLAY_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy");
+
     protected String description;
     protected boolean isDone;
+    private int id;
+    private int slot;
+    private String sortName;
+    private String displayString;
 
     /**
      * Constructs a Task with the specified description.
@@ -20,11 +27,60 @@ public class Task {
         this.isDone = false;
     }
 
+    /**
+     * Returns the description of the task.
+     *
+     * @return The description of the task.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the ID assigned to the task by the TaskList holding it.
+     * The ID stays the same when other tasks are deleted or the list is sorted.
+     *
+     * @return The ID of the task.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Assigns the ID under which the task is indexed.
+     * Storage also uses it to restore the ID a task was saved with, which a TaskList keeps
+     * when the task is added unless another task in the list already has it.
+     *
+     * @param id The ID of the task.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the slot the task occupies in the order of its TaskList.
+     *
+     * @return The slot of the task.
+     */
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Records the slot the task occupies in the order of its TaskList.
+     *
+     * @param slot The slot of the task.
+     */
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
     /**
      * Marks the task as completed.
      */
     public void markAsDone() {
         this.isDone = true;
+        this.displayString = null;
     }
 
     /**
@@ -32,6 +88,34 @@ public class Task {
      */
     public void unmarkDone() {
         this.isDone = false;
+        this.displayString = null;
+    }
+
+    /**
+     * Returns a copy of the task with the given completion status and the same ID.
+     * Used by TaskList, which never changes a task once it holds it.
+     *
+     * @param isDone True if the copy should be marked as done.
+     * @return The copy of the task.
+     */
+    Task withStatus(boolean isDone) {
+        try {
+            Task copy = (Task) super.clone();
+            copy.isDone = isDone;
+            copy.displayString = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("Task should be cloneable", e);
+        }
+    }
+
+    /**
+     * Returns whether the task has been completed.
+     *
+     * @return True if the task is done.
+     */
+    public boolean isDone() {
+        return isDone;
     }
 
     /**
@@ -44,8 +128,27 @@ public class Task {
         return (isDone ? "X" : " ");
     }
 
+    /**
+     * Returns the task as it is displayed to the user.
+     * The string is built once and reused until the completion status of the task changes.
+     *
+     * @return The display string of the task.
+     */
     @Override
-    public String toString() {
+    public final String toString() {
+        if (displayString == null) {
+            displayString = render();
+        }
+        return displayString;
+    }
+
+    /**
+     * Builds the display string of the task.
+     * Overridden by subclasses to add their type and dates.
+     *
+     * @return The display string of the task.
+     */
+    protected String render() {
         return "[" + getStatusIcon() + "] " + description;
     }
 
@@ -59,11 +162,34 @@ public class Task {
     }
 
     /**
-     * Returns the date/time associated with the task.
+     * Returns the type code that starts the task's line in the storage file, tagged with its ID once it has one.
+     *
+     * @param type The type code of the task.
+     * @return The type code, followed by '#' and the ID if the task has been added to a list.
+     */
+    protected String formatType(String type) {
+        return id == 0 ? type : type + "#" + id;
+    }
+
+    /**
+     * Returns the key the task is ordered by when sorting by name, computed once per task.
+     *
+     * @return The description of the task in lower case.
+     */
+    String getSortName() {
+        if (sortName == null) {
+            sortName = description.toLowerCase();
+        }
+        return sortName;
+    }
+
+    /**
+     * Returns the key the task is ordered by when sorting by date.
      * Overridden by subclasses that have dates (Deadline, Event).
-     * * @return LocalDateTime of the task, or null if none exists.
+     *
+     * @return The epoch day of the task's date, or Long.MAX_VALUE if it has none.
      */
-    public LocalDateTime getDateTime() {
-        return null;
+    long getSortDay() {
+        return Long.MAX_VALUE;
     }
-}
\ No newline at end of file
+}
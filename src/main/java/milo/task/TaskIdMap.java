@@ -0,0 +1,121 @@
+package milo.task;
+
+import java.util.Arrays;
+
+/**
+ * Maps task IDs to tasks without boxing the keys.
+ * Uses open addressing with linear probing; deletions shift later entries back into the gap
+ * instead of leaving tombstones, so lookups stay short however many tasks have been removed.
+ */
+final class TaskIdMap {
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private Task[] values;
+    private int mask;
+    private int size;
+
+    TaskIdMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The ID of the task, which must not be negative.
+     * @return The task, or null if there is none with that ID.
+     */
+    Task get(int id) {
+        int slot = find(id);
+        return slot < 0 ? null : values[slot];
+    }
+
+    /**
+     * Associates a task with an ID, replacing any task previously stored under it.
+     *
+     * @param id The ID of the task, which must not be negative.
+     * @param task The task to be stored.
+     */
+    void put(int id, Task task) {
+        assert id != EMPTY : "Task IDs should not be negative";
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int slot = home(id);
+        while (keys[slot] != EMPTY && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            size++;
+        }
+        keys[slot] = id;
+        values[slot] = task;
+    }
+
+    /**
+     * Removes the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The removed task, or null if there was none with that ID.
+     */
+    Task remove(int id) {
+        int gap = find(id);
+        if (gap < 0) {
+            return null;
+        }
+        Task removed = values[gap];
+
+        // Move back every later entry of the probe run that would otherwise become unreachable
+        for (int slot = (gap + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int distanceFromHome = (slot - home(keys[slot])) & mask;
+            int distanceFromGap = (slot - gap) & mask;
+            if (distanceFromHome >= distanceFromGap) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(int id) {
+        for (int slot = home(id); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int home(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Task[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Task[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+}
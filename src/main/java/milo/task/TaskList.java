@@ -1,31 +1,60 @@
 package milo.task;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Manages an in-memory list of tasks.
  * Provides methods to add, delete, retrieve, and sort tasks from the collection.
+ * Tasks can be addressed by their displayed position or by the ID they are given when added,
+ * which stays the same when other tasks are deleted or the list is sorted.
+ * Every modification made through this class bumps a version number, which lets
+ * callers tell whether the list has changed since they last looked at it.
+ *
+ * <p>The list is safe to use from several threads. Modifications are serialized by a write lock,
+ * and lookups and searches share a read lock. A task is never changed once the list holds it;
+ * marking a task replaces it with a copy instead. Savers and renderers can therefore read an
+ * immutable {@link #snapshot()} without any locking while commands go on modifying the list.
+ * None of the search indexes or sorted views is keyed on whether a task is done, so they keep the task
+ * as it was first added and every lookup returns the copy currently held under its ID.
  */
 public class TaskList {
-    private final ArrayList<Task> tasks;
+    private final TaskOrder tasks = new TaskOrder();
+    private final TaskIdMap tasksById = new TaskIdMap();
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+    private final DateIndex dateIndex = new DateIndex();
+    private final EventIntervalTree eventTree = new EventIntervalTree();
+    private final SortedTaskView nameView = new SortedTaskView(SortedTaskView.BY_NAME);
+    private final SortedTaskView dateView = new SortedTaskView(SortedTaskView.BY_DATE);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+    private volatile TaskSnapshot snapshot = new TaskSnapshot(new Task[0], -1, 1);
+    private volatile long version;
+    private int nextId = 1;
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
     }
 
     /**
      * Constructs a TaskList with an existing collection of tasks.
-     * Used primarily when loading tasks from storage.
+     * Used primarily when loading tasks from storage. Tasks keep the IDs they were saved with,
+     * and the others are numbered after the highest of them in the given order.
      *
      * @param tasks An ArrayList of tasks to initialize the list.
      */
     public TaskList(ArrayList<Task> tasks) {
         assert tasks != null : "Initial task list should not be null";
-        this.tasks = tasks;
+        for (Task task : tasks) {
+            index(task);
+        }
     }
 
     /**
@@ -35,7 +64,13 @@ public class TaskList {
      */
     public void addTask(Task t) {
         assert t != null : "Cannot add a null task to the list";
-        tasks.add(t);
+        writeLock.lock();
+        try {
+            index(t);
+            version++;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -45,18 +80,133 @@ public class TaskList {
      * @return The task that was removed.
      */
     public Task deleteTask(int index) {
-        assert index >= 0 && index < tasks.size() : "Index out of bounds for deletion: " + index;
-        return tasks.remove(index);
+        writeLock.lock();
+        try {
+            assert index >= 0 && index < tasks.size() : "Index out of bounds for deletion: " + index;
+            Task removed = tasks.get(index);
+            tasks.remove(removed);
+            unindex(removed);
+            version++;
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the tasks at the specified indices, compacting the list once for all of them.
+     *
+     * @param indices The zero-based indices of the tasks to be removed.
+     * @return The tasks that were removed, in list order.
+     */
+    public ArrayList<Task> deleteTasks(BitSet indices) {
+        writeLock.lock();
+        try {
+            assert indices.length() <= tasks.size() : "Index out of bounds for deletion: " + (indices.length() - 1);
+            if (indices.cardinality() == 1) {
+                ArrayList<Task> removed = new ArrayList<>();
+                removed.add(deleteTask(indices.nextSetBit(0)));
+                return removed;
+            }
+
+            ArrayList<Task> removed = tasks.removeAll(indices);
+            for (Task task : removed) {
+                unindex(task);
+            }
+            version++;
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the task at the specified index as done.
+     *
+     * @param index The zero-based index of the task to mark.
+     * @return The task that was marked.
+     */
+    public Task markTask(int index) {
+        return setTaskDone(index, true);
+    }
+
+    /**
+     * Marks the task at the specified index as not done.
+     *
+     * @param index The zero-based index of the task to unmark.
+     * @return The task that was unmarked.
+     */
+    public Task unmarkTask(int index) {
+        return setTaskDone(index, false);
+    }
+
+    /**
+     * Marks the tasks at the specified indices as done or not done.
+     *
+     * @param indices The zero-based indices of the tasks to update.
+     * @param isDone True to mark the tasks as done, false to mark them as not done.
+     * @return The tasks that were updated, in list order.
+     */
+    public ArrayList<Task> setTasksDone(BitSet indices, boolean isDone) {
+        writeLock.lock();
+        try {
+            assert indices.length() <= tasks.size() : "Index out of bounds for update: " + (indices.length() - 1);
+            ArrayList<Task> updated = new ArrayList<>(indices.cardinality());
+            for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+                updated.add(replaceStatus(tasks.get(i), isDone));
+            }
+            version++;
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Task setTaskDone(int index, boolean isDone) {
+        writeLock.lock();
+        try {
+            assert index >= 0 && index < tasks.size() : "Index out of bounds for update: " + index;
+            Task task = replaceStatus(tasks.get(index), isDone);
+            version++;
+            return task;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
-     * Returns the full list of tasks.
+     * Returns the full list of tasks in display order.
+     * The list is a copy, so changing it does not affect this TaskList.
      *
      * @return An ArrayList containing all tasks.
      */
     public ArrayList<Task> getTasks() {
-        assert tasks != null : "Internal tasks list is null";
-        return tasks;
+        return new ArrayList<>(snapshot());
+    }
+
+    /**
+     * Returns an immutable snapshot of the tasks in display order, which can be read from any thread.
+     * The snapshot is copied at most once per version of the list and shared by every reader until the next change.
+     *
+     * @return The tasks as of the current version.
+     */
+    public TaskSnapshot snapshot() {
+        TaskSnapshot current = snapshot;
+        if (current.getVersion() == version) {
+            return current;
+        }
+        readLock.lock();
+        try {
+            // The version cannot change while the read lock is held
+            current = snapshot;
+            if (current.getVersion() != version) {
+                current = new TaskSnapshot(tasks.toArray(), version, nextId);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -65,7 +215,22 @@ public class TaskList {
      * @return The size of the task list.
      */
     public int getSize() {
-        return tasks.size();
+        readLock.lock();
+        try {
+            return tasks.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the modification version of the list.
+     * The version increases whenever a task is added, deleted, marked, unmarked or the list is sorted.
+     *
+     * @return The current version of the list.
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -75,42 +240,239 @@ public class TaskList {
      * @return The task at the specified index.
      */
     public Task getTask(int index) {
-        assert index >= 0 && index < tasks.size() : "Index out of bounds for retrieval: " + index;
-        return tasks.get(index);
+        readLock.lock();
+        try {
+            assert index >= 0 && index < tasks.size() : "Index out of bounds for retrieval: " + index;
+            return tasks.get(index);
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
-     * Finds tasks that contain the specified keyword in their description.
+     * Retrieves a task by its ID.
      *
-     * @param keyword The string to search for.
-     * @return A list of tasks that match the keyword.
+     * @param id The ID of the task to retrieve.
+     * @return The task with that ID, or null if there is none.
      */
-    public ArrayList<Task> findTasks(String keyword) {
-        assert keyword != null : "Search keyword should not be null";
+    public Task getTaskById(int id) {
+        readLock.lock();
+        try {
+            return id < 0 ? null : tasksById.get(id);
+        } finally {
+            readLock.unlock();
+        }
+    }
 
-        ArrayList<Task> matchingTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.toString().contains(keyword)) {
-                matchingTasks.add(task);
-            }
+    /**
+     * Returns the current position of a task in the list.
+     *
+     * @param task A task held by this list.
+     * @return The zero-based index of the task.
+     */
+    public int indexOf(Task task) {
+        readLock.lock();
+        try {
+            assert tasksById.get(task.getId()) == task : "Task should belong to this list";
+            return tasks.indexOf(task);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Finds tasks whose description contains every keyword in the query.
+     * A keyword matches any word in the description that starts with it, ignoring case.
+     *
+     * @param query The whitespace-separated keywords to search for.
+     * @return A list of tasks that match all of the keywords, in the order they were added.
+     */
+    public ArrayList<Task> findTasks(String query) {
+        assert query != null : "Search keyword should not be null";
+        readLock.lock();
+        try {
+            return current(keywordIndex.findAll(KeywordIndex.tokenize(query)));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Finds tasks whose description contains at least one keyword in the query.
+     * A keyword matches any word in the description that starts with it, ignoring case.
+     *
+     * @param query The whitespace-separated keywords to search for.
+     * @return A list of tasks that match any of the keywords, in the order they were added.
+     */
+    public ArrayList<Task> findAnyTasks(String query) {
+        assert query != null : "Search keyword should not be null";
+        readLock.lock();
+        try {
+            return current(keywordIndex.findAny(KeywordIndex.tokenize(query)));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the deadlines due on the given date and the events in progress on it.
+     *
+     * @param date The date to search for.
+     * @return A list of tasks on that date, in the order they were added.
+     */
+    public ArrayList<Task> findTasksOnDate(LocalDate date) {
+        assert date != null : "Search date should not be null";
+
+        ArrayList<Task> matchingTasks;
+        readLock.lock();
+        try {
+            matchingTasks = dateIndex.findOn(date);
+            matchingTasks.addAll(eventTree.findContaining(date.toEpochDay()));
+            current(matchingTasks);
+        } finally {
+            readLock.unlock();
+        }
+        matchingTasks.sort(Comparator.comparingInt(Task::getId));
+        return matchingTasks;
+    }
+
+    /**
+     * Finds the deadlines due within an inclusive date range and the events overlapping it.
+     *
+     * @param from The first date of the range.
+     * @param to The last date of the range.
+     * @return A list of tasks in the range, ordered by due or start date.
+     */
+    public ArrayList<Task> findTasksBetween(LocalDate from, LocalDate to) {
+        assert from != null && to != null : "Search range should not be null";
+        assert !from.isAfter(to) : "Search range should not be reversed";
+
+        ArrayList<Task> deadlines;
+        ArrayList<Event> events;
+        readLock.lock();
+        try {
+            deadlines = current(dateIndex.findBetween(from, to));
+            events = current(eventTree.findOverlapping(from.toEpochDay(), to.toEpochDay()));
+        } finally {
+            readLock.unlock();
+        }
+
+        // Both lists are already ordered by date, so a single merge keeps the result ordered
+        ArrayList<Task> matchingTasks = new ArrayList<>(deadlines.size() + events.size());
+        int d = 0;
+        int e = 0;
+        while (d < deadlines.size() || e < events.size()) {
+            boolean isDeadlineNext = e == events.size() || (d < deadlines.size()
+                    && !((Deadline) deadlines.get(d)).getBy().isAfter(events.get(e).getFrom()));
+            matchingTasks.add(isDeadlineNext ? deadlines.get(d++) : events.get(e++));
         }
         return matchingTasks;
     }
 
     /**
-     * Sorts the tasks in the list alphabetically by their description.
+     * Sorts the tasks in the list alphabetically by their description, ignoring case.
      * This fulfills the C-Sort extension requirement.
+     * Tasks with the same description stay in the order they were added.
      */
     public void sortAlphabetically() {
-        tasks.sort(Comparator.comparing(task -> task.toString().toLowerCase()));
+        writeLock.lock();
+        try {
+            tasks.setAll(current(nameView.toList()));
+            version++;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
      * Sorts the tasks chronologically by date.
      * Tasks without dates (Todos) are placed at the end.
+     * Tasks on the same date stay in the order they were added.
      */
     public void sortChronologically() {
-        tasks.sort(Comparator.comparing(Task::getDateTime,
-                Comparator.nullsLast(Comparator.naturalOrder())));
+        writeLock.lock();
+        try {
+            tasks.setAll(current(dateView.toList()));
+            version++;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Makes sure that tasks added from now on get at least the given ID, so that the IDs of tasks
+     * deleted before the list was saved are not given out again.
+     *
+     * @param firstUnusedId The lowest ID that may be given to a new task.
+     */
+    public void reserveIds(int firstUnusedId) {
+        writeLock.lock();
+        try {
+            if (firstUnusedId > nextId) {
+                nextId = firstUnusedId;
+                // The cached snapshot records the old next ID
+                snapshot = new TaskSnapshot(new Task[0], -1, nextId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void index(Task task) {
+        // A loaded task keeps the ID it was saved with, unless another task already has it
+        if (task.getId() <= 0 || tasksById.get(task.getId()) != null) {
+            task.setId(nextId);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
+        tasks.add(task);
+        addToIndexes(task);
+    }
+
+    /**
+     * Swaps a task for a copy with the given status in the order and the ID map.
+     * The indexes are left alone, since the status is not part of any of their keys.
+     */
+    private Task replaceStatus(Task task, boolean isDone) {
+        if (task.isDone() == isDone) {
+            return task;
+        }
+        Task copy = task.withStatus(isDone);
+        tasks.replace(task, copy);
+        tasksById.put(copy.getId(), copy);
+        return copy;
+    }
+
+    /**
+     * Replaces each task found through an index, in place, with the copy the list now holds under its ID.
+     */
+    private <T extends Task> ArrayList<T> current(ArrayList<T> found) {
+        for (int i = 0; i < found.size(); i++) {
+            @SuppressWarnings("unchecked")
+            T task = (T) tasksById.get(found.get(i).getId());
+            found.set(i, task);
+        }
+        return found;
+    }
+
+    private void addToIndexes(Task task) {
+        tasksById.put(task.getId(), task);
+        keywordIndex.add(task);
+        dateIndex.add(task);
+        if (task instanceof Event) {
+            eventTree.add((Event) task);
+        }
+        nameView.add(task);
+        dateView.add(task);
+    }
+
+    private void unindex(Task task) {
+        tasksById.remove(task.getId());
+        keywordIndex.remove(task);
+        dateIndex.remove(task);
+        if (task instanceof Event) {
+            eventTree.remove((Event) task);
+        }
+        nameView.remove(task);
+        dateView.remove(task);
     }
-}
\ No newline at end of file
+}
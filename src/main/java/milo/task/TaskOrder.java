@@ -0,0 +1,196 @@
+package milo.task;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps tasks in display order while allowing any task to be removed without shifting the rest.
+ * Tasks occupy slots in an array, and a removed task leaves an empty slot behind. A Fenwick tree
+ * counts the occupied slots, so the task at a displayed position and the position of a task are
+ * both found in O(log n). The slots are packed again once most of them are empty.
+ */
+final class TaskOrder {
+    private static final int MIN_CAPACITY = 16;
+
+    private Task[] slots = new Task[MIN_CAPACITY];
+    private int[] tree = new int[MIN_CAPACITY + 1];
+    private int usedSlotCount;
+    private int size;
+
+    /**
+     * Appends a task after every other task.
+     *
+     * @param task The task to be appended.
+     */
+    void add(Task task) {
+        if (usedSlotCount == slots.length) {
+            rebuild(toList(), Math.max(MIN_CAPACITY, size * 2));
+        }
+        place(task, usedSlotCount);
+        increment(usedSlotCount, 1);
+        usedSlotCount++;
+        size++;
+    }
+
+    /**
+     * Removes a task, leaving the order of the remaining tasks unchanged.
+     *
+     * @param task The task to be removed, which must be held by this order.
+     */
+    void remove(Task task) {
+        int slot = task.getSlot();
+        assert slots[slot] == task : "Task should be held in its slot";
+        slots[slot] = null;
+        increment(slot, -1);
+        size--;
+        if (usedSlotCount > MIN_CAPACITY && size < usedSlotCount / 4) {
+            rebuild(toList(), Math.max(MIN_CAPACITY, size * 2));
+        }
+    }
+
+    /**
+     * Removes the tasks at the given positions in a single pass over the slots.
+     *
+     * @param positions The zero-based positions of the tasks to be removed.
+     * @return The removed tasks, in order.
+     */
+    ArrayList<Task> removeAll(BitSet positions) {
+        assert positions.length() <= size : "Positions should refer to existing tasks";
+        ArrayList<Task> kept = new ArrayList<>(size - positions.cardinality());
+        ArrayList<Task> removed = new ArrayList<>(positions.cardinality());
+        int position = 0;
+        for (int i = 0; i < usedSlotCount; i++) {
+            if (slots[i] != null) {
+                (positions.get(position++) ? removed : kept).add(slots[i]);
+            }
+        }
+        rebuild(kept, Math.max(MIN_CAPACITY, kept.size() * 2));
+        return removed;
+    }
+
+    /**
+     * Returns the task at a zero-based position.
+     *
+     * @param position The position of the task.
+     * @return The task at that position.
+     * @throws IndexOutOfBoundsException If there is no task at that position.
+     */
+    Task get(int position) {
+        Objects.checkIndex(position, size);
+        // Descend the tree for the slot holding the (position + 1)-th task
+        int slot = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next <= slots.length && tree[next] < remaining) {
+                slot = next;
+                remaining -= tree[next];
+            }
+        }
+        return slots[slot];
+    }
+
+    /**
+     * Returns the zero-based position of a task.
+     *
+     * @param task The task, which must be held by this order.
+     * @return The number of tasks before it.
+     */
+    int indexOf(Task task) {
+        int count = 0;
+        for (int i = task.getSlot(); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Replaces the order with the given one, such as after sorting.
+     *
+     * @param tasks The same tasks in their new order.
+     */
+    void setAll(List<Task> tasks) {
+        assert tasks.size() == size : "Reordering should keep the same tasks";
+        rebuild(tasks, Math.max(MIN_CAPACITY, tasks.size() * 2));
+    }
+
+    /**
+     * Returns the tasks in order as a new list.
+     *
+     * @return A list of the tasks.
+     */
+    ArrayList<Task> toList() {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < usedSlotCount; i++) {
+            if (slots[i] != null) {
+                tasks.add(slots[i]);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the tasks in order as a new array.
+     *
+     * @return An array of the tasks.
+     */
+    Task[] toArray() {
+        Task[] tasks = new Task[size];
+        int position = 0;
+        for (int i = 0; i < usedSlotCount; i++) {
+            if (slots[i] != null) {
+                tasks[position++] = slots[i];
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Puts a task in the place of another, keeping its position.
+     *
+     * @param task The task to be replaced, which must be held by this order.
+     * @param replacement The task to take its place.
+     */
+    void replace(Task task, Task replacement) {
+        int slot = task.getSlot();
+        assert slots[slot] == task : "Task should be held in its slot";
+        place(replacement, slot);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void place(Task task, int slot) {
+        slots[slot] = task;
+        task.setSlot(slot);
+    }
+
+    private void increment(int slot, int delta) {
+        for (int i = slot + 1; i <= slots.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Packs the tasks into the first slots of new arrays and builds the tree in linear time.
+     */
+    private void rebuild(List<Task> tasks, int capacity) {
+        slots = new Task[capacity];
+        tree = new int[capacity + 1];
+        for (int i = 0; i < tasks.size(); i++) {
+            place(tasks.get(i), i);
+            tree[i + 1] = 1;
+        }
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+        usedSlotCount = tasks.size();
+        size = tasks.size();
+    }
+}
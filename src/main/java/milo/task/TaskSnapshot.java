@@ -0,0 +1,57 @@
+package milo.task;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of the tasks in a TaskList as they were at one version, in display order.
+ * A TaskList replaces a task instead of changing it, so a snapshot can be read from any thread,
+ * without locking, while the list goes on being modified.
+ */
+public final class TaskSnapshot extends AbstractList<Task> implements RandomAccess {
+    private final Task[] tasks;
+    private final long version;
+    private final int nextId;
+
+    /**
+     * Constructs a TaskSnapshot.
+     *
+     * @param tasks The tasks in display order, which must not be changed afterwards.
+     * @param version The version of the TaskList the tasks were taken from.
+     * @param nextId The ID the TaskList would give the next task added to it.
+     */
+    TaskSnapshot(Task[] tasks, long version, int nextId) {
+        this.tasks = tasks;
+        this.version = version;
+        this.nextId = nextId;
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks[index];
+    }
+
+    @Override
+    public int size() {
+        return tasks.length;
+    }
+
+    /**
+     * Returns the version of the TaskList the snapshot was taken from.
+     *
+     * @return The version of the list.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the ID the TaskList would have given the next task added to it at this version.
+     * Saving it lets the list carry on from there, so the ID of a deleted task is never given out again.
+     *
+     * @return The next unused ID.
+     */
+    public int getNextId() {
+        return nextId;
+    }
+}
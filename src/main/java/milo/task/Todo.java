@@ -15,12 +15,12 @@ public class Todo extends Task {
     }
 
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    protected String render() {
+        return "[T]" + super.render();
     }
 
     @Override
     public String toFileFormat() {
-        return "T | " + super.toFileFormat();
+        return formatType("T") + " | " + super.toFileFormat();
     }
 }
\ No newline at end of file
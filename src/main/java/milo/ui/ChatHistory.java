@@ -0,0 +1,110 @@
+package milo.ui;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the chat messages shown in the window within a fixed capacity.
+ * When the capacity is exceeded, the oldest quarter of the messages is appended to an
+ * archive file and dropped from memory, so a long session does not keep growing.
+ * Each archived message takes one line: "U" or "M" for the sender, then the text with
+ * backslashes and line breaks escaped.
+ */
+public class ChatHistory {
+    private final List<ChatMessage> messages;
+    private final int capacity;
+    private final int evictionBatchSize;
+    private final Path archivePath;
+    private long archivedCount;
+
+    /**
+     * Constructs a ChatHistory that manages the given list of messages.
+     *
+     * @param messages The list backing the chat view.
+     * @param capacity The largest number of messages kept in the list.
+     * @param archivePath The file evicted messages are appended to.
+     */
+    public ChatHistory(List<ChatMessage> messages, int capacity, Path archivePath) {
+        assert capacity > 0 : "Chat history capacity should be positive";
+        this.messages = messages;
+        this.capacity = capacity;
+        this.evictionBatchSize = capacity / 4;
+        this.archivePath = archivePath;
+    }
+
+    /**
+     * Adds a message to the end of the history, archiving the oldest messages if it is full.
+     * The messages are dropped from memory even if archiving them fails.
+     *
+     * @param message The message to be added.
+     * @throws IOException If there is an error writing to the archive file.
+     */
+    public void add(ChatMessage message) throws IOException {
+        messages.add(message);
+        evictOverflow();
+    }
+
+    /**
+     * Replaces a message still held in memory, such as a placeholder for a pending reply,
+     * with one or more messages. Searching starts from the newest message, where such placeholders usually are.
+     *
+     * @param oldMessage The message to be replaced.
+     * @param newMessages The messages to put in its place, in order.
+     * @return True if the message was found, false if it has already been archived.
+     * @throws IOException If there is an error writing to the archive file.
+     */
+    public boolean replace(ChatMessage oldMessage, List<ChatMessage> newMessages) throws IOException {
+        int index = messages.lastIndexOf(oldMessage);
+        if (index < 0) {
+            return false;
+        }
+        messages.set(index, newMessages.get(0));
+        messages.addAll(index + 1, newMessages.subList(1, newMessages.size()));
+        evictOverflow();
+        return true;
+    }
+
+    /**
+     * Returns the number of messages moved to the archive file so far.
+     *
+     * @return The number of archived messages.
+     */
+    public long getArchivedCount() {
+        return archivedCount;
+    }
+
+    private void evictOverflow() throws IOException {
+        if (messages.size() <= capacity) {
+            return;
+        }
+
+        List<ChatMessage> evicted = messages.subList(0, messages.size() - capacity + evictionBatchSize);
+        try {
+            archive(evicted);
+        } finally {
+            archivedCount += evicted.size();
+            evicted.clear();
+        }
+    }
+
+    private void archive(List<ChatMessage> evicted) throws IOException {
+        List<String> lines = new ArrayList<>(evicted.size());
+        for (ChatMessage message : evicted) {
+            lines.add((message.isFromMilo() ? "M" : "U") + " | " + escape(message.getText()));
+        }
+        if (archivePath.getParent() != null) {
+            Files.createDirectories(archivePath.getParent());
+        }
+        Files.write(archivePath, lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,52 @@
+package milo.ui;
+
+import java.util.function.Supplier;
+
+/**
+ * Represents a single message shown in the chat window.
+ * The text of a message may be produced lazily, the first time the message is displayed.
+ */
+public class ChatMessage {
+    private Supplier<String> textSupplier;
+    private String text;
+    private final boolean isFromMilo;
+
+    /**
+     * Constructs a ChatMessage.
+     *
+     * @param text The text of the message.
+     * @param isFromMilo True if Milo sent the message, false if the user did.
+     */
+    public ChatMessage(String text, boolean isFromMilo) {
+        this.text = text;
+        this.isFromMilo = isFromMilo;
+    }
+
+    /**
+     * Constructs a ChatMessage whose text is only produced when it is first needed.
+     *
+     * @param textSupplier The function producing the text of the message.
+     * @param isFromMilo True if Milo sent the message, false if the user did.
+     */
+    public ChatMessage(Supplier<String> textSupplier, boolean isFromMilo) {
+        this.textSupplier = textSupplier;
+        this.isFromMilo = isFromMilo;
+    }
+
+    /**
+     * Returns the text of the message, producing it first if necessary.
+     *
+     * @return The text of the message.
+     */
+    public String getText() {
+        if (text == null) {
+            text = textSupplier.get();
+            textSupplier = null;
+        }
+        return text;
+    }
+
+    public boolean isFromMilo() {
+        return isFromMilo;
+    }
+}
@@ -1,13 +1,16 @@
 package milo.ui;
 
+import milo.command.Command;
+import milo.metrics.LatencyHistogram;
+import milo.metrics.Metrics;
 import milo.task.Task;
 import milo.task.TaskList;
-import milo.task.Event;
-import milo.task.Deadline;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Handles the user interface of the application.
@@ -15,6 +18,11 @@ import java.time.format.DateTimeFormatter;
  * instead of printing directly to the console.
  */
 public class Ui {
+    /** The number of tasks shown on a page of the list when no page size is given. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int PREVIEW_LIMIT = 5;
+    private static final long NANOS_PER_MICRO = 1_000;
 
     /**
      * Constructs a Ui object.
@@ -58,25 +66,96 @@ public class Ui {
     }
 
     /**
-     * Returns a string containing all tasks currently in the task list.
+     * Returns a string containing all tasks currently in the task list, each followed by its ID.
      *
      * @param tasks The TaskList containing tasks to be displayed.
      * @return Formatted list of tasks.
      */
     public String showTaskList(TaskList tasks) {
-        if (tasks.getSize() == 0) {
-            return " Your list is currently empty.";
+        StringBuilder sb = new StringBuilder();
+        try {
+            writeTaskList(tasks.snapshot(), sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        StringBuilder sb = new StringBuilder(" Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.getSize(); i++) {
-            sb.append(" ").append(i + 1).append(".").append(tasks.getTask(i));
-            if (i < tasks.getSize() - 1) {
-                sb.append("\n");
-            }
+        return sb.toString();
+    }
+
+    /**
+     * Writes all tasks to the output one line at a time, without building the whole list in memory first.
+     *
+     * @param tasks The tasks to be displayed, in display order, such as a snapshot of a TaskList.
+     * @param out The destination of the formatted list.
+     * @throws IOException If there is an error writing to the output.
+     */
+    public void writeTaskList(List<Task> tasks, Appendable out) throws IOException {
+        if (tasks.isEmpty()) {
+            out.append(" Your list is currently empty.");
+            return;
+        }
+        out.append(" Here are the tasks in your list:\n");
+        writeTasks(tasks, 0, tasks.size(), out);
+    }
+
+    /**
+     * Returns one page of the task list.
+     *
+     * @param tasks The tasks in display order.
+     * @param page The one-based number of the page, which must exist.
+     * @param pageSize The number of tasks on each page.
+     * @return Formatted page of tasks.
+     */
+    public String showTaskPage(List<Task> tasks, int page, int pageSize) {
+        int pageCount = getPageCount(tasks.size(), pageSize);
+        assert page >= 1 && page <= pageCount : "Page should exist: " + page;
+        int from = (page - 1) * pageSize;
+        int to = Math.min(tasks.size(), from + pageSize);
+
+        StringBuilder sb = new StringBuilder(" Here are tasks " + (from + 1) + "-" + to + " of " + tasks.size()
+                + " (page " + page + " of " + pageCount + "):\n");
+        try {
+            writeTasks(tasks, from, to, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
         return sb.toString();
     }
 
+    /**
+     * Returns the number of pages needed to show a list.
+     *
+     * @param taskCount The number of tasks in the list.
+     * @param pageSize The number of tasks on each page.
+     * @return The number of pages, at least one.
+     */
+    public static int getPageCount(int taskCount, int pageSize) {
+        return Math.max(1, (taskCount + pageSize - 1) / pageSize);
+    }
+
+    private void writeTasks(List<Task> tasks, int from, int to, Appendable out) throws IOException {
+        long startNanos = System.nanoTime();
+        for (int i = from; i < to; i++) {
+            Task task = tasks.get(i);
+            out.append(" ").append(String.valueOf(i + 1)).append(".").append(task.toString())
+                    .append(" #").append(String.valueOf(task.getId()));
+            if (i < to - 1) {
+                out.append("\n");
+            }
+        }
+        Metrics.global().recordRender(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns a message confirming which task list is now in use.
+     *
+     * @param name The name of the list.
+     * @param size The number of tasks in the list.
+     * @return Feedback string.
+     */
+    public String showWorkspaceChange(String name, int size) {
+        return " Now using the list '" + name + "'. It has " + size + " tasks.";
+    }
+
     /**
      * Returns matching tasks found via the 'find' command as a string.
      * * @param matchingTasks The list of tasks that matched the search.
@@ -86,14 +165,7 @@ public class Ui {
         if (matchingTasks.isEmpty()) {
             return " No matching tasks found.";
         }
-        StringBuilder sb = new StringBuilder(" Here are the matching tasks in your list:\n");
-        for (int i = 0; i < matchingTasks.size(); i++) {
-            sb.append(" ").append(i + 1).append(".").append(matchingTasks.get(i));
-            if (i < matchingTasks.size() - 1) {
-                sb.append("\n");
-            }
-        }
-        return sb.toString();
+        return formatTasks(" Here are the matching tasks in your list:\n", matchingTasks);
     }
 
     /**
@@ -135,38 +207,127 @@ public class Ui {
     }
 
     /**
-     * Finds and returns tasks that occur on a specific date.
+     * Returns a summary of a status change applied to several tasks, listing the first few of them.
+     *
+     * @param tasks The tasks that were updated.
+     * @param isMark True if marked as done, false otherwise.
+     * @return Feedback string.
+     */
+    public String showStatusChanges(ArrayList<Task> tasks, boolean isMark) {
+        String header = isMark
+                ? " Nice! I've marked " + tasks.size() + " tasks as done:\n"
+                : " OK, I've marked " + tasks.size() + " tasks as not done yet:\n";
+        return formatPreview(header, tasks);
+    }
+
+    /**
+     * Returns a summary of the removal of several tasks, listing the first few of them.
      *
-     * @param dateStr The date string in YYYY-MM-DD format.
-     * @param list The list of tasks to search through.
+     * @param tasks The tasks that were removed.
+     * @param size The current size of the task list.
+     * @return Feedback string.
+     */
+    public String showRemovedTasks(ArrayList<Task> tasks, int size) {
+        return formatPreview(" Noted. I've removed " + tasks.size() + " tasks:\n", tasks)
+                + "\n Now you have " + size + " tasks in the list.";
+    }
+
+    /**
+     * Returns the tasks that occur on a specific date.
+     *
+     * @param date The date that was searched for.
+     * @param matchingTasks The tasks occurring on that date.
      * @return Formatted string of tasks on that date.
      */
-    public String showTasksByDate(String dateStr, ArrayList<Task> list) {
-        try {
-            LocalDate queryDate = LocalDate.parse(dateStr);
-            StringBuilder sb = new StringBuilder(" Here are the tasks occurring on "
-                    + queryDate.format(DateTimeFormatter.ofPattern("MMM dd yyyy")) + ":\n");
-            int count = 0;
-            for (Task task : list) {
-                boolean isMatch = false;
-                if (task instanceof Deadline && ((Deadline) task).getBy().equals(queryDate)) {
-                    isMatch = true;
-                }
-                if (task instanceof Event && ((Event) task).getFrom().equals(queryDate)) {
-                    isMatch = true;
-                }
-
-                if (isMatch) {
-                    count++;
-                    sb.append(" ").append(count).append(".").append(task).append("\n");
-                }
+    public String showTasksByDate(LocalDate date, ArrayList<Task> matchingTasks) {
+        if (matchingTasks.isEmpty()) {
+            return " No tasks found for this date.";
+        }
+        return formatTasks(" Here are the tasks occurring on "
+                + date.format(Task.DISPLAY_DATE_FORMAT) + ":\n", matchingTasks);
+    }
+
+    /**
+     * Returns the tasks that occur within an inclusive date range.
+     *
+     * @param from The first date of the range.
+     * @param to The last date of the range.
+     * @param matchingTasks The tasks occurring within the range.
+     * @return Formatted string of tasks in the range.
+     */
+    public String showTasksInRange(LocalDate from, LocalDate to, ArrayList<Task> matchingTasks) {
+        if (matchingTasks.isEmpty()) {
+            return " No tasks found in this range.";
+        }
+        return formatTasks(" Here are the tasks from " + from.format(Task.DISPLAY_DATE_FORMAT)
+                + " to " + to.format(Task.DISPLAY_DATE_FORMAT) + ":\n", matchingTasks);
+    }
+
+    /**
+     * Returns the counts and latencies of the commands run so far, along with storage activity.
+     * Latencies are in microseconds.
+     *
+     * @param metrics The metrics to be shown.
+     * @return Formatted statistics.
+     */
+    public String showStats(Metrics metrics) {
+        StringBuilder sb = new StringBuilder(" Here are my statistics (times in microseconds):\n");
+        sb.append(" Commands:");
+        for (Command command : Command.values()) {
+            LatencyHistogram latencies = metrics.getCommandLatencies(command);
+            if (latencies.getCount() == 0) {
+                continue;
+            }
+            sb.append("\n   ").append(command.name().toLowerCase()).append(": ").append(latencies.getCount())
+                    .append(" run, ").append(metrics.getFailureCount(command)).append(" failed, ");
+            appendLatencies(sb, latencies);
+        }
+        sb.append("\n Phases:");
+        for (Metrics.Phase phase : Metrics.Phase.values()) {
+            sb.append("\n   ").append(phase.name().toLowerCase()).append(": ");
+            appendLatencies(sb, metrics.getPhaseLatencies(phase));
+        }
+        sb.append("\n Storage:")
+                .append("\n   ").append(metrics.getSnapshotCount()).append(" snapshots, ")
+                .append(metrics.getSnapshotBytesWritten()).append(" bytes")
+                .append("\n   ").append(metrics.getJournalWriteCount()).append(" journal writes, ")
+                .append(metrics.getJournalBytesWritten()).append(" bytes")
+                .append("\n   last load: ").append(metrics.getLastLoadTaskCount()).append(" tasks in ")
+                .append(metrics.getLastLoadMillis()).append(" ms");
+        return sb.toString();
+    }
+
+    private static void appendLatencies(StringBuilder sb, LatencyHistogram latencies) {
+        sb.append("p50 ").append(latencies.getValueAtPercentile(0.5) / NANOS_PER_MICRO)
+                .append(", p99 ").append(latencies.getValueAtPercentile(0.99) / NANOS_PER_MICRO)
+                .append(", max ").append(latencies.getMaxNanos() / NANOS_PER_MICRO);
+    }
+
+    private String formatTasks(String header, ArrayList<Task> list) {
+        long startNanos = System.nanoTime();
+        StringBuilder sb = new StringBuilder(header);
+        for (int i = 0; i < list.size(); i++) {
+            sb.append(" ").append(i + 1).append(".").append(list.get(i));
+            if (i < list.size() - 1) {
+                sb.append("\n");
             }
-            if (count == 0) {
-                return " No tasks found for this date.";
+        }
+        Metrics.global().recordRender(System.nanoTime() - startNanos);
+        return sb.toString();
+    }
+
+    private String formatPreview(String header, ArrayList<Task> list) {
+        StringBuilder sb = new StringBuilder(header);
+        int shown = Math.min(list.size(), PREVIEW_LIMIT);
+        for (int i = 0; i < shown; i++) {
+            sb.append("   ").append(list.get(i));
+            if (i < shown - 1) {
+                sb.append("\n");
             }
-            return sb.toString().trim();
-        } catch (Exception e) {
-            return " OOPS!!! Please use the format YYYY-MM-DD for searching.";
         }
+        if (list.size() > shown) {
+            sb.append("\n   ...and ").append(list.size() - shown).append(" more");
+        }
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
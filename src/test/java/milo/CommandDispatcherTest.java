@@ -0,0 +1,42 @@
+package milo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import milo.ui.ChatMessage;
+
+public class CommandDispatcherTest {
+    @Test
+    public void submit_manyCommands_executedAndAnsweredInOrder(@TempDir Path tempDir) throws InterruptedException {
+        Milo milo = new Milo(tempDir.resolve("milo.txt").toString());
+        CommandDispatcher dispatcher = new CommandDispatcher(milo, Runnable::run);
+        List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        for (int i = 1; i <= 50; i++) {
+            dispatcher.submit("todo task " + i, response -> responses.add(response.get(0).getText()));
+        }
+        dispatcher.submit("list", response -> {
+            assertEquals(1, response.size());
+            responses.add(response.get(0).getText());
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(51, responses.size());
+        for (int i = 1; i <= 50; i++) {
+            assertTrue(responses.get(i - 1).contains("[T][ ] task " + i + "\n Now you have " + i + " tasks"));
+        }
+        assertTrue(responses.get(50).contains("50.[T][ ] task 50"));
+        dispatcher.shutdown();
+    }
+}
@@ -0,0 +1,61 @@
+package milo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MiloServerTest {
+    @Test
+    public void send_twoClients_shareOneTaskList(@TempDir Path tempDir) throws IOException {
+        try (MiloServer server = new MiloServer(new Milo(tempDir.resolve("milo.txt").toString()), 0)) {
+            server.start();
+            try (MiloClient first = new MiloClient("localhost", server.getPort());
+                    MiloClient second = new MiloClient("localhost", server.getPort())) {
+                first.send("todo read book");
+                first.send("todo .hidden file");
+
+                assertEquals(" Here are the tasks in your list:\n 1.[T][ ] read book #1\n 2.[T][ ] .hidden file #2",
+                        second.send("list"));
+                assertTrue(second.send("mark 2").contains("[T][X] .hidden file"));
+                assertTrue(first.send("find hidden").contains("1.[T][X] .hidden file"));
+            }
+        }
+    }
+
+    @Test
+    public void send_useFromOneClient_refusedAndOtherClientUnaffected(@TempDir Path tempDir) throws IOException {
+        try (MiloServer server = new MiloServer(new Milo(tempDir.resolve("milo.txt").toString()), 0)) {
+            server.start();
+            try (MiloClient first = new MiloClient("localhost", server.getPort());
+                    MiloClient second = new MiloClient("localhost", server.getPort())) {
+                second.send("todo read book");
+
+                assertTrue(first.send("use projectA").contains("cannot be switched"));
+                first.send("todo buy milk");
+
+                assertEquals(" Here are the tasks in your list:\n 1.[T][ ] read book #1\n 2.[T][ ] buy milk #2",
+                        second.send("list"));
+                assertFalse(Files.exists(tempDir.resolve("lists").resolve("projectA.txt")));
+            }
+        }
+    }
+
+    @Test
+    public void run_mixedWorkload_reportsEveryRequest(@TempDir Path tempDir)
+            throws IOException, InterruptedException {
+        try (MiloServer server = new MiloServer(new Milo(tempDir.resolve("milo.txt").toString()), 0)) {
+            server.start();
+            LoadGenerator.Report report = new LoadGenerator("localhost", server.getPort(), 4, 200).run();
+
+            assertEquals(800, report.getRequestCount());
+            assertTrue(report.getPercentileMicros(0.99) <= report.getPercentileMicros(1));
+            assertTrue(report.getThroughput() > 0);
+        }
+    }
+}
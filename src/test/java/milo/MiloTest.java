@@ -0,0 +1,107 @@
+package milo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import milo.exception.MiloException;
+import milo.storage.Storage;
+import milo.task.Task;
+import milo.ui.ChatMessage;
+
+public class MiloTest {
+    @Test
+    public void run_batchOfCommands_repliesAndSavesOnceAtEnd(@TempDir Path tempDir)
+            throws IOException, MiloException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        StringBuilder commands = new StringBuilder();
+        for (int i = 1; i <= 300; i++) {
+            commands.append("todo task ").append(i).append('\n');
+        }
+        commands.append("mark 2\ndelete 1\nbye\ntodo after bye\n");
+
+        StringWriter output = new StringWriter();
+        new Milo(filePath).run(new StringReader(commands.toString()), output);
+
+        assertTrue(output.toString().contains("Now you have 300 tasks in the list."));
+        assertTrue(output.toString().contains("[T][X] task 2"));
+        assertFalse(output.toString().contains("after bye"));
+        assertFalse(Files.exists(tempDir.resolve("milo.txt.journal")));
+
+        ArrayList<Task> saved = new Storage(filePath).load();
+        assertEquals(299, saved.size());
+        assertEquals("[T][X] task 2", saved.get(0).toString());
+    }
+
+    @Test
+    public void run_waitingForNextCommand_flushesReplies(@TempDir Path tempDir) throws Exception {
+        PipedWriter commands = new PipedWriter();
+        PipedReader input = new PipedReader(commands);
+        StringWriter output = new StringWriter();
+        Milo milo = new Milo(tempDir.resolve("milo.txt").toString());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> run = executor.submit(() -> {
+                milo.run(input, output);
+                return null;
+            });
+            commands.write("todo read book\n");
+            commands.flush();
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!output.toString().contains("Now you have 1 tasks") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(output.toString().contains("Now you have 1 tasks"));
+
+            commands.write("bye\n");
+            commands.close();
+            run.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getResponseMessages_longList_splitIntoPages(@TempDir Path tempDir) {
+        Milo milo = new Milo(tempDir.resolve("milo.txt").toString());
+        for (int i = 1; i <= 120; i++) {
+            milo.getResponse("todo task " + i);
+        }
+
+        List<ChatMessage> pages = milo.getResponseMessages("list");
+        milo.getResponse("delete 1");
+
+        assertEquals(3, pages.size());
+        assertTrue(pages.get(0).getText().startsWith(" Here are tasks 1-50 of 120 (page 1 of 3):\n 1.[T][ ] task 1 #1"));
+        assertTrue(pages.get(2).getText().endsWith(" 120.[T][ ] task 120 #120"));
+        assertEquals(1, milo.getResponseMessages("list 2").size());
+    }
+
+    @Test
+    public void getResponse_useOtherList_keepsListsSeparate(@TempDir Path tempDir) {
+        Milo milo = new Milo(tempDir.resolve("milo.txt").toString());
+        milo.getResponse("todo default task");
+
+        assertEquals(" Now using the list 'projectA'. It has 0 tasks.", milo.getResponse("use projectA"));
+        milo.getResponse("todo project task");
+        assertTrue(milo.getResponse("list").contains("1.[T][ ] project task"));
+        assertEquals(" Now using the list 'milo'. It has 1 tasks.", milo.getResponse("use milo"));
+        assertTrue(Files.exists(tempDir.resolve("lists").resolve("projectA.txt")));
+    }
+}
@@ -0,0 +1,57 @@
+package milo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TraceReplayerTest {
+    @Test
+    public void replay_recordedSession_endsWithSameChecksum(@TempDir Path tempDir)
+            throws IOException, InterruptedException {
+        Path dataFile = tempDir.resolve("recorded").resolve("milo.txt");
+        Path startingData = tempDir.resolve("start").resolve("milo.txt");
+        Files.createDirectories(startingData.getParent());
+        Files.writeString(startingData, "T | 0 | existing task\n");
+        Files.createDirectories(dataFile.getParent());
+        Files.copy(startingData, dataFile);
+        Path tracePath = tempDir.resolve("trace.txt");
+
+        Milo milo = new Milo(dataFile.toString());
+        milo.startTrace(tracePath);
+        milo.getResponse("todo read book");
+        milo.getResponse("deadline return book /by 2026-06-10");
+        milo.getResponse("use projectA");
+        milo.getResponse("todo write report");
+        milo.getResponse("use milo");
+        milo.getResponse("mark 2");
+        milo.getResponse("delete 1");
+        milo.getResponse("list");
+        milo.close();
+        long recordedChecksum = TraceReplayer.checksum(dataFile);
+
+        TraceReplayer replayer = new TraceReplayer(tracePath);
+        TraceReplayer.Report fast = replayer.replay(startingData, false);
+        TraceReplayer.Report paced = replayer.replay(startingData, true);
+
+        assertEquals(8, fast.getCommandCount());
+        assertEquals(recordedChecksum, fast.getChecksum());
+        assertEquals(recordedChecksum, paced.getChecksum());
+        assertNotEquals(TraceReplayer.checksum(startingData), recordedChecksum);
+        assertEquals("T | 0 | existing task\n", Files.readString(startingData));
+    }
+
+    @Test
+    public void constructor_lineWithoutTimestamp_throwsIOException(@TempDir Path tempDir) throws IOException {
+        Path tracePath = tempDir.resolve("trace.txt");
+        Files.writeString(tracePath, "12\ttodo a\ntodo b\n");
+
+        IOException e = assertThrows(IOException.class, () -> new TraceReplayer(tracePath));
+        assertEquals("Line 2 of the trace has no timestamp: todo b", e.getMessage());
+    }
+}
@@ -0,0 +1,42 @@
+package milo.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    public void getValueAtPercentile_uniformLatencies_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 1_000_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(1_000_000_000L, histogram.getMaxNanos());
+        long p50 = histogram.getValueAtPercentile(0.5);
+        long p99 = histogram.getValueAtPercentile(0.99);
+        assertTrue(p50 >= 500_000_000L && p50 <= 500_000_000L * 1.02, "p50 was " + p50);
+        assertTrue(p99 >= 990_000_000L && p99 <= 990_000_000L * 1.02, "p99 was " + p99);
+        assertEquals(1_000_000_000L, histogram.getValueAtPercentile(1));
+    }
+
+    @Test
+    public void record_outOfRangeLatencies_clamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtPercentile(0.5));
+        assertEquals((1L << 42) - 1, histogram.getValueAtPercentile(1));
+    }
+
+    @Test
+    public void getValueAtPercentile_nothingRecorded_returnsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getValueAtPercentile(0.99));
+        assertEquals(0, histogram.getMeanNanos());
+    }
+}
@@ -1,14 +1,24 @@
 package milo.parser;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import milo.command.Command;
+import milo.metrics.Metrics;
+import milo.task.Task;
 import milo.task.TaskList;
+import milo.task.Todo;
 import milo.ui.Ui;
 import milo.storage.Storage;
 import milo.exception.MiloException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ParserTest {
     @Test
@@ -36,4 +46,89 @@ public class ParserTest {
             Parser.parse("blahblah", tasks, ui, storage);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parse_emptyReferenceList_throwsMiloException(@TempDir Path tempDir) throws MiloException, IOException {
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage(tempDir.resolve("milo.txt").toString());
+        Parser.parse("todo read book", tasks, ui, storage);
+
+        for (String command : List.of("mark ,", "unmark ,", "delete ,")) {
+            MiloException e = assertThrows(MiloException.class, () -> Parser.parse(command, tasks, ui, storage));
+            assertEquals("Invalid task number.", e.getMessage());
+        }
+        assertEquals(1, tasks.getSize());
+    }
+
+    @Test
+    public void parse_bulkMarkAndDelete_appliedInOneJournalRecordEach(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage(filePath, true);
+        for (int i = 1; i <= 20; i++) {
+            Parser.parse("todo task " + i, tasks, ui, storage);
+        }
+
+        String marked = Parser.parse("mark 1-10", tasks, ui, storage);
+        String deleted = Parser.parse("delete 2, 4-6,#20", tasks, ui, storage);
+
+        assertTrue(marked.contains("marked 10 tasks as done"));
+        assertTrue(deleted.contains("removed 5 tasks") && deleted.contains("Now you have 15 tasks"));
+        assertEquals("[T][X] task 1", tasks.getTask(0).toString());
+        assertEquals("[T][X] task 3", tasks.getTask(1).toString());
+        assertEquals("[T][X] task 7", tasks.getTask(2).toString());
+        assertEquals("[T][ ] task 19", tasks.getTask(14).toString());
+
+        List<String> journal = Files.readAllLines(tempDir.resolve("milo.txt.journal"));
+        assertEquals(22, journal.size());
+        ArrayList<Task> reloaded = new Storage(filePath, true).load();
+        assertEquals(tasks.getTasks().toString(), reloaded.toString());
+    }
+
+    @Test
+    public void parse_reversedRange_throwsMiloException() throws MiloException, IOException {
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage("./data/test.txt");
+        tasks.addTask(new Todo("read book"));
+        tasks.addTask(new Todo("return book"));
+
+        assertThrows(MiloException.class, () -> Parser.parse("delete 2-1", tasks, ui, storage));
+        assertEquals(2, tasks.getSize());
+    }
+
+    @Test
+    public void parse_listPage_showsOnlyThatPage() throws MiloException, IOException {
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage("./data/test.txt");
+        for (int i = 1; i <= 7; i++) {
+            tasks.addTask(new Todo("task " + i));
+        }
+
+        assertEquals(" Here are tasks 4-6 of 7 (page 2 of 3):\n 4.[T][ ] task 4 #4\n 5.[T][ ] task 5 #5\n"
+                + " 6.[T][ ] task 6 #6", Parser.parse("list 2 3", tasks, ui, storage));
+        assertThrows(MiloException.class, () -> Parser.parse("list 4 3", tasks, ui, storage));
+        assertThrows(MiloException.class, () -> Parser.parse("list 1 0", tasks, ui, storage));
+    }
+
+    @Test
+    public void parse_statsAfterCommands_showsCountsAndSnapshotBytes(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        TaskList tasks = new TaskList();
+        Ui ui = new Ui();
+        Storage storage = new Storage(tempDir.resolve("milo.txt").toString());
+        long todoCount = Metrics.global().getCommandLatencies(Command.TODO).getCount();
+        long snapshotBytes = Metrics.global().getSnapshotBytesWritten();
+
+        Parser.parse("todo read book", tasks, ui, storage);
+        String stats = Parser.parse("stats", tasks, ui, storage);
+
+        assertEquals(todoCount + 1, Metrics.global().getCommandLatencies(Command.TODO).getCount());
+        assertTrue(Metrics.global().getSnapshotBytesWritten() > snapshotBytes);
+        assertTrue(stats.contains("   todo: " + (todoCount + 1) + " run"), stats);
+    }
+}
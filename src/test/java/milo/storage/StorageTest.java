@@ -0,0 +1,349 @@
+package milo.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import milo.exception.MiloException;
+import milo.task.Task;
+import milo.task.TaskList;
+import milo.task.Todo;
+
+public class StorageTest {
+    @Test
+    public void load_journaledMutations_replayedOnTopOfSnapshot(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList tasks = new TaskList(storage.load());
+
+        Task first = new Todo("read book");
+        tasks.addTask(first);
+        storage.logAdd(first);
+        Task second = new Todo("return book");
+        tasks.addTask(second);
+        storage.logAdd(second);
+        second.markAsDone();
+        storage.logStatusChange(1, true);
+        tasks.deleteTask(0);
+        storage.logDelete(0);
+        storage.save(tasks.getTasks());
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).load();
+        assertEquals(1, reloaded.size());
+        assertEquals("[T][X] return book", reloaded.get(0).toString());
+    }
+
+    @Test
+    public void compact_journaledStorage_foldsJournalIntoSnapshot(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList tasks = new TaskList(storage.load());
+
+        Task task = new Todo("read book");
+        tasks.addTask(task);
+        storage.logAdd(task);
+        storage.compact(tasks.getTasks());
+
+        assertFalse(Files.exists(tempDir.resolve("milo.txt.journal")));
+        List<String> lines = Files.readAllLines(tempDir.resolve("milo.txt"));
+        assertEquals("N | 2", RecordChecksum.open(lines.get(0)));
+        assertEquals("T#1 | 0 | read book", RecordChecksum.open(lines.get(1)));
+    }
+
+    @Test
+    public void save_unmodifiedTaskList_writesNothing(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("milo.txt");
+        Storage storage = new Storage(file.toString());
+        TaskList tasks = new TaskList();
+
+        storage.save(tasks);
+        assertFalse(Files.exists(file));
+
+        tasks.addTask(new Todo("read book"));
+        storage.save(tasks);
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    public void load_corruptedLines_skippedAndReported(@TempDir Path tempDir) throws MiloException, IOException {
+        Path file = tempDir.resolve("milo.txt");
+        Files.write(file, List.of(
+                "E | 1 | orientation | 2026-08-01 | 2026-08-05",
+                "D | 0 | return book",
+                "D | 0 | pay | rent | 2026-06-31",
+                "X | 0 | unknown",
+                "D | 0 | return book | 2026-06-15"));
+
+        Storage storage = new Storage(file.toString());
+        ArrayList<Task> tasks = storage.load();
+
+        assertEquals(2, tasks.size());
+        assertEquals("[E][X] orientation (from: Aug 01 2026 to: Aug 05 2026)", tasks.get(0).toString());
+        assertEquals("[D][ ] return book (by: Jun 15 2026)", tasks.get(1).toString());
+        assertEquals(5, storage.getLastLoadReport().getLineCount());
+        assertEquals(3, storage.getLastLoadReport().getSkippedCount());
+    }
+
+    @Test
+    public void read_parallelChunks_matchesSequentialOrder(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("milo.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lines.add(i % 50 == 0 ? "corrupted line " + i : "T | " + (i % 2) + " | task " + i);
+        }
+        Files.write(file, lines);
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        LoadReport report = ParallelTaskFileReader.read(file, 7, tasks);
+
+        assertEquals(500, report.getLineCount());
+        assertEquals(490, tasks.size());
+        assertEquals("[T][X] task 1", tasks.get(0).toString());
+        assertEquals("[T][X] task 499", tasks.get(489).toString());
+    }
+
+    @Test
+    public void convert_textToBinaryAndBack_preservesTasks(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        Path text = tempDir.resolve("milo.txt");
+        List<String> lines = List.of(
+                "N | 4",
+                "T#1 | 1 | read book",
+                "D#3 | 0 | return book | 2026-06-15",
+                "E#2 | 0 | orientation | 2026-08-01 | 2026-08-05");
+        Files.write(text, lines);
+
+        Path binary = tempDir.resolve("milo.bin");
+        Storage.convert(text.toString(), binary.toString());
+        assertTrue(Files.size(binary) < Files.size(text));
+
+        Path roundTrip = tempDir.resolve("round-trip.txt");
+        Storage.convert(binary.toString(), roundTrip.toString());
+        List<String> roundTripLines = new ArrayList<>();
+        for (String line : Files.readAllLines(roundTrip)) {
+            roundTripLines.add(RecordChecksum.open(line));
+        }
+        assertEquals(lines, roundTripLines);
+    }
+
+    @Test
+    public void readBinary_damagedRecord_skipsOnlyThatRecord(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        ArrayList<Task> written = new ArrayList<>(List.of(
+                new Todo("read book"), new Todo("buy milk"), new Todo("plan trip")));
+        Path file = tempDir.resolve("milo.bin");
+        BinarySnapshot.write(file, written, 4);
+
+        // The header takes 13 bytes and the first record 23, so this is the type of the second
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[40] = 'X';
+        Files.write(file, bytes);
+
+        ArrayList<Task> mapped = new ArrayList<>();
+        LoadReport report = BinarySnapshot.read(file, mapped);
+        ArrayList<Task> streamed = new ArrayList<>();
+        BinarySnapshot.read(Files.newInputStream(file), streamed);
+
+        assertEquals(1, report.getSkippedCount());
+        for (ArrayList<Task> tasks : List.of(mapped, streamed)) {
+            assertEquals(2, tasks.size());
+            assertEquals("read book", tasks.get(0).getDescription());
+            assertEquals("plan trip", tasks.get(1).getDescription());
+        }
+    }
+
+    @Test
+    public void loadTaskList_afterRestart_keepsIdsAndNeverReusesThem(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        for (String fileName : List.of("milo.txt", "milo.bin")) {
+            String filePath = tempDir.resolve(fileName).toString();
+            Storage storage = new Storage(filePath, true);
+            TaskList tasks = storage.loadTaskList();
+            for (String description : List.of("read book", "return book", "buy milk")) {
+                Task task = new Todo(description);
+                tasks.addTask(task);
+                storage.logAdd(task);
+            }
+            tasks.sortAlphabetically();
+            storage.logSort("name");
+            tasks.deleteTask(2);
+            storage.logDelete(2);
+            Task newest = new Todo("write report");
+            tasks.addTask(newest);
+            storage.logAdd(newest);
+            tasks.deleteTask(2);
+            storage.logDelete(2);
+            storage.checkpoint(tasks);
+            Task journaled = new Todo("call home");
+            tasks.addTask(journaled);
+            storage.logAdd(journaled);
+
+            TaskList reloaded = new Storage(filePath, true).loadTaskList();
+            reloaded.addTask(new Todo("pay rent"));
+
+            assertEquals("[T][ ] read book", reloaded.getTaskById(1).toString(), fileName);
+            assertEquals("[T][ ] buy milk", reloaded.getTaskById(3).toString(), fileName);
+            assertNull(reloaded.getTaskById(2), fileName);
+            assertNull(reloaded.getTaskById(4), fileName);
+            assertEquals("[T][ ] call home", reloaded.getTaskById(5).toString(), fileName);
+            assertEquals("[T][ ] pay rent", reloaded.getTaskById(6).toString(), fileName);
+        }
+
+        LoadReport report = ParallelTaskFileReader.read(tempDir.resolve("milo.txt"), 3, new ArrayList<>());
+        assertEquals(2, report.getLineCount());
+        assertEquals(5, report.getSavedNextId());
+    }
+
+    @Test
+    public void load_tamperedRecords_skippedAndCounted(@TempDir Path tempDir) throws MiloException, IOException {
+        for (String fileName : List.of("milo.txt", "milo.bin")) {
+            Path file = tempDir.resolve(fileName);
+            new Storage(file.toString()).compact(new ArrayList<>(List.of(
+                    new Todo("read book"), new Todo("return book"), new Todo("pay rent"))));
+
+            byte[] bytes = Files.readAllBytes(file);
+            String content = new String(bytes, StandardCharsets.ISO_8859_1);
+            bytes[content.indexOf("return")] = 'R';
+            Files.write(file, bytes);
+
+            Storage storage = new Storage(file.toString());
+            ArrayList<Task> tasks = storage.load();
+            assertEquals(2, tasks.size());
+            assertEquals("[T][ ] pay rent", tasks.get(1).toString());
+            assertEquals(1, storage.getLastLoadReport().getChecksumFailureCount());
+            assertTrue(storage.getLastLoadReport().hasDataLoss());
+        }
+    }
+
+    @Test
+    public void load_snapshotReplacementInterrupted_rolledForward(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        Path file = tempDir.resolve("milo.txt");
+        Files.write(file, List.of(RecordChecksum.seal("T | 0 | old snapshot")));
+        Files.write(tempDir.resolve("milo.txt.tmp"), List.of(RecordChecksum.seal("T | 0 | new snapshot")));
+        Files.write(tempDir.resolve("milo.txt.journal.retired"), List.of(RecordChecksum.seal("M | 0")));
+
+        ArrayList<Task> tasks = new Storage(file.toString(), true).load();
+
+        assertEquals(1, tasks.size());
+        assertEquals("[T][ ] new snapshot", tasks.get(0).toString());
+        assertFalse(Files.exists(tempDir.resolve("milo.txt.tmp")));
+        assertFalse(Files.exists(tempDir.resolve("milo.txt.journal.retired")));
+    }
+
+    @Test
+    public void load_partialTempFile_discarded(@TempDir Path tempDir) throws MiloException, IOException {
+        Path file = tempDir.resolve("milo.txt");
+        Files.write(file, List.of(RecordChecksum.seal("T | 0 | old snapshot")));
+        Files.write(tempDir.resolve("milo.txt.tmp"), List.of("T | 0 | new sna"));
+
+        ArrayList<Task> tasks = new Storage(file.toString(), true).load();
+
+        assertEquals("[T][ ] old snapshot", tasks.get(0).toString());
+        assertFalse(Files.exists(tempDir.resolve("milo.txt.tmp")));
+    }
+
+    @Test
+    public void replay_tornJournalRecord_stopsReplay(@TempDir Path tempDir) throws MiloException, IOException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList tasks = new TaskList(storage.load());
+        for (String description : List.of("read book", "return book")) {
+            Task task = new Todo(description);
+            tasks.addTask(task);
+            storage.logAdd(task);
+        }
+        storage.logDelete(0);
+
+        Path journal = tempDir.resolve("milo.txt.journal");
+        List<String> records = new ArrayList<>(Files.readAllLines(journal));
+        records.set(1, records.get(1).replace("return", "Return"));
+        Files.write(journal, records);
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).load();
+        assertEquals(1, reloaded.size());
+        assertEquals("[T][ ] read book", reloaded.get(0).toString());
+    }
+
+    @Test
+    public void replay_journalTornBeforeItsChecksum_stopsReplay(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        TaskList tasks = new TaskList(storage.load());
+        for (int i = 1; i <= 12; i++) {
+            Task task = new Todo("task " + i);
+            tasks.addTask(task);
+            storage.logAdd(task);
+        }
+
+        Path journal = tempDir.resolve("milo.txt.journal");
+        Files.write(journal, List.of("D | 1"), StandardOpenOption.APPEND);
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).load();
+        assertEquals(12, reloaded.size());
+        assertEquals("[T][ ] task 2", reloaded.get(1).toString());
+    }
+
+    @Test
+    public void save_afterFailedJournalWrite_writesFullSnapshot(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        Path journal = tempDir.resolve("milo.txt.journal");
+        Storage storage = new Storage(filePath, true);
+        TaskList tasks = new TaskList(storage.load());
+        storage.enableWriteBehind(1000, FsyncPolicy.EVERY_COMMIT);
+
+        // A directory in place of the journal makes the append fail
+        Files.createDirectory(journal);
+        Task first = new Todo("read book");
+        tasks.addTask(first);
+        storage.logAdd(first);
+        assertThrows(IOException.class, storage::flush);
+
+        Files.delete(journal);
+        Task second = new Todo("return book");
+        tasks.addTask(second);
+        storage.logAdd(second);
+        storage.save(tasks);
+        storage.close();
+
+        ArrayList<Task> reloaded = new Storage(filePath, true).load();
+        assertEquals(2, reloaded.size());
+        assertEquals("[T][ ] read book", reloaded.get(0).toString());
+    }
+
+    @Test
+    public void flush_writeBehind_groupsQueuedChangesIntoOneCommit(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        String filePath = tempDir.resolve("milo.txt").toString();
+        Storage storage = new Storage(filePath, true);
+        storage.enableWriteBehind(60_000, FsyncPolicy.NEVER);
+        TaskList tasks = new TaskList(storage.load());
+
+        Task task = new Todo("read book");
+        tasks.addTask(task);
+        storage.logAdd(task);
+        tasks.markTask(0);
+        storage.logStatusChange(0, true);
+        assertFalse(Files.exists(tempDir.resolve("milo.txt.journal")));
+
+        storage.flush();
+        assertEquals(2, Files.readAllLines(tempDir.resolve("milo.txt.journal")).size());
+        assertEquals("[T][X] read book", new Storage(filePath, true).load().get(0).toString());
+    }
+}
@@ -0,0 +1,63 @@
+package milo.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import milo.exception.MiloException;
+import milo.task.TaskList;
+import milo.task.Todo;
+
+public class WorkspaceManagerTest {
+    private WorkspaceManager createManager(Path tempDir, int maxLoadedCount) {
+        return new WorkspaceManager("milo", tempDir.resolve("milo.txt"), tempDir.resolve("lists"), 1_000,
+                maxLoadedCount, path -> {
+                    Storage storage = new Storage(path.toString(), true);
+                    storage.enableWriteBehind(50, FsyncPolicy.NEVER);
+                    return storage;
+                });
+    }
+
+    private static void addTodo(WorkspaceManager manager, String description) throws IOException {
+        TaskList tasks = manager.getActive().getTasks();
+        Todo todo = new Todo(description);
+        tasks.addTask(todo);
+        manager.getActive().getStorage().logAdd(todo);
+        manager.getActive().getStorage().save(tasks);
+    }
+
+    @Test
+    public void use_moreListsThanFit_evictsLeastRecentlyUsedAndReloadsIt(@TempDir Path tempDir)
+            throws MiloException, IOException {
+        WorkspaceManager manager = createManager(tempDir, 2);
+        manager.use("milo");
+        addTodo(manager, "default task");
+        TaskList projectA = manager.use("projectA").getTasks();
+        addTodo(manager, "task in A");
+        TaskList projectB = manager.use("projectB").getTasks();
+        addTodo(manager, "task in B");
+
+        // projectB came in last, so the default list, used least recently, had to go
+        assertEquals(2, manager.getLoadedCount());
+        manager.use("projectA");
+        assertEquals(projectA, manager.getActive().getTasks());
+
+        TaskList reloaded = manager.use("milo").getTasks();
+        assertEquals(1, reloaded.getSize());
+        assertEquals("[T][ ] default task", reloaded.getTask(0).toString());
+        // Loading the default list again pushed out projectB, which has to be read back from disk
+        assertNotSame(projectB, manager.use("projectB").getTasks());
+        assertEquals("[T][ ] task in B", manager.getActive().getTasks().getTask(0).toString());
+    }
+
+    @Test
+    public void use_invalidName_throwsMiloException(@TempDir Path tempDir) {
+        WorkspaceManager manager = createManager(tempDir, 2);
+        assertThrows(MiloException.class, () -> manager.use("../escape"));
+    }
+}
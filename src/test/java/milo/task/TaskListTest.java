@@ -0,0 +1,183 @@
+package milo.task;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TaskListTest {
+    private TaskList createTaskList() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("read book"));
+        tasks.addTask(new Deadline("return book", "2026-06-15"));
+        tasks.addTask(new Todo("buy groceries"));
+        return tasks;
+    }
+
+    @Test
+    public void findTasks_multipleKeywords_matchesTasksContainingAll() {
+        ArrayList<Task> matches = createTaskList().findTasks("Return BOOK");
+        assertEquals(1, matches.size());
+        assertEquals("return book", matches.get(0).getDescription());
+    }
+
+    @Test
+    public void findAnyTasks_keywordPrefixes_matchesTasksContainingEither() {
+        ArrayList<Task> matches = createTaskList().findAnyTasks("rea groc");
+        assertEquals(2, matches.size());
+        assertEquals("read book", matches.get(0).getDescription());
+        assertEquals("buy groceries", matches.get(1).getDescription());
+    }
+
+    @Test
+    public void findTasks_deletedTask_noLongerMatches() {
+        TaskList tasks = createTaskList();
+        tasks.deleteTask(0);
+        ArrayList<Task> matches = tasks.findTasks("book");
+        assertEquals(1, matches.size());
+        assertEquals("return book", matches.get(0).getDescription());
+    }
+
+    @Test
+    public void findAndSort_afterMarkAndUnmark_returnCurrentStatus() {
+        TaskList tasks = createTaskList();
+        tasks.markTask(1);
+        tasks.markTask(0);
+        tasks.unmarkTask(0);
+
+        assertSame(tasks.getTask(1), tasks.findTasks("return").get(0));
+        assertSame(tasks.getTask(1), tasks.findTasksOnDate(LocalDate.of(2026, 6, 15)).get(0));
+        tasks.sortAlphabetically();
+        assertEquals("[T][ ] read book", tasks.getTask(1).toString());
+        assertEquals("[D][X] return book (by: Jun 15 2026)", tasks.getTask(2).toString());
+        tasks.sortChronologically();
+        assertEquals("[D][X] return book (by: Jun 15 2026)", tasks.getTask(0).toString());
+        tasks.deleteTask(0);
+        assertEquals(0, tasks.findTasks("return").size());
+    }
+
+    @Test
+    public void findTasksBetween_dateRange_returnsDatedTasksInDateOrder() {
+        TaskList tasks = createTaskList();
+        tasks.addTask(new Event("orientation", "2026-06-01", "2026-06-05"));
+        tasks.addTask(new Deadline("submit report", "2026-07-01"));
+
+        ArrayList<Task> matches = tasks.findTasksBetween(LocalDate.parse("2026-06-01"),
+                LocalDate.parse("2026-06-30"));
+        assertEquals(2, matches.size());
+        assertEquals("orientation", matches.get(0).getDescription());
+        assertEquals("return book", matches.get(1).getDescription());
+    }
+
+    @Test
+    public void findTasksOnDate_dayInsideMultiDayEvent_includesEvent() {
+        TaskList tasks = createTaskList();
+        tasks.addTask(new Event("orientation", "2026-08-01", "2026-08-05"));
+
+        ArrayList<Task> matches = tasks.findTasksOnDate(LocalDate.parse("2026-08-03"));
+        assertEquals(1, matches.size());
+        assertEquals("orientation", matches.get(0).getDescription());
+        assertEquals(0, tasks.findTasksOnDate(LocalDate.parse("2026-08-06")).size());
+    }
+
+    @Test
+    public void getTaskById_afterSortAndDeletes_findsSameTaskAtNewPosition() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 100; i++) {
+            tasks.addTask(new Todo("task " + (char) ('z' - i % 26) + i));
+        }
+        Task tracked = tasks.getTask(41);
+        int id = tracked.getId();
+
+        tasks.sortAlphabetically();
+        for (int i = 0; i < 60; i++) {
+            Task first = tasks.getTask(0);
+            if (first != tracked) {
+                tasks.deleteTask(0);
+            } else {
+                tasks.deleteTask(1);
+            }
+        }
+
+        assertEquals(40, tasks.getSize());
+        assertSame(tracked, tasks.getTaskById(id));
+        assertSame(tracked, tasks.getTask(tasks.indexOf(tracked)));
+        assertNull(tasks.getTaskById(id + 1000));
+    }
+
+    @Test
+    public void sort_afterAddsAndDeletes_ordersByPrecomputedKeys() {
+        TaskList tasks = createTaskList();
+        tasks.addTask(new Event("orientation", "2026-06-01", "2026-06-05"));
+        tasks.addTask(new Deadline("apply", "2026-06-01"));
+        tasks.addTask(new Todo("Buy stamps"));
+        tasks.deleteTask(0);
+
+        tasks.sortAlphabetically();
+        assertEquals("[D][ ] apply (by: Jun 01 2026)", tasks.getTask(0).toString());
+        assertEquals("buy groceries", tasks.getTask(1).getDescription());
+        assertEquals("Buy stamps", tasks.getTask(2).getDescription());
+        assertEquals("return book", tasks.getTask(4).getDescription());
+
+        tasks.sortChronologically();
+        assertEquals("orientation", tasks.getTask(0).getDescription());
+        assertEquals("apply", tasks.getTask(1).getDescription());
+        assertEquals("return book", tasks.getTask(2).getDescription());
+        assertEquals("buy groceries", tasks.getTask(3).getDescription());
+        assertEquals("Buy stamps", tasks.getTask(4).getDescription());
+    }
+
+    @Test
+    public void snapshot_laterMarkAndDelete_snapshotUnchanged() {
+        TaskList tasks = createTaskList();
+        TaskSnapshot before = tasks.snapshot();
+        assertSame(before, tasks.snapshot());
+
+        tasks.markTask(1);
+        tasks.deleteTask(0);
+
+        assertEquals(3, before.size());
+        assertEquals("[D][ ] return book (by: Jun 15 2026)", before.get(1).toString());
+        assertEquals("[D][X] return book (by: Jun 15 2026)", tasks.snapshot().get(0).toString());
+        assertTrue(tasks.snapshot().getVersion() > before.getVersion());
+    }
+
+    @Test
+    public void snapshot_readersDuringWrites_seeConsistentLists() throws Exception {
+        TaskList tasks = new TaskList();
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        List<Future<?>> results = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            results.add(readers.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    TaskSnapshot snapshot = tasks.snapshot();
+                    String first = snapshot.toString();
+                    tasks.findTasks("task");
+                    assertEquals(first, snapshot.toString());
+                }
+                return null;
+            }));
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            tasks.addTask(new Todo("task " + i));
+            tasks.markTask(tasks.getSize() - 1);
+            if (i % 3 == 0) {
+                tasks.deleteTask(0);
+            }
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        readers.shutdown();
+        assertEquals(1333, tasks.getSize());
+    }
+}
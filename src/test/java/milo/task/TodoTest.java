@@ -18,4 +18,14 @@ public class TodoTest {
         // Ensure this matches your Task class's status icon for 'done'
         assertEquals("[T][X] read book", todo.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCachedStringAfterStatusChanges() {
+        Deadline deadline = new Deadline("return book", "2026-06-15");
+        assertEquals("[D][ ] return book (by: Jun 15 2026)", deadline.toString());
+        deadline.markAsDone();
+        assertEquals("[D][X] return book (by: Jun 15 2026)", deadline.toString());
+        deadline.unmarkDone();
+        assertEquals("[D][ ] return book (by: Jun 15 2026)", deadline.toString());
+    }
+}
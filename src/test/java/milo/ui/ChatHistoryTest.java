@@ -0,0 +1,50 @@
+package milo.ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChatHistoryTest {
+    @Test
+    public void add_withinCapacity_keepsEverythingInMemory(@TempDir Path tempDir) throws IOException {
+        Path archive = tempDir.resolve("chat-history.txt");
+        List<ChatMessage> messages = new ArrayList<>();
+        ChatHistory history = new ChatHistory(messages, 8, archive);
+
+        for (int i = 0; i < 8; i++) {
+            history.add(new ChatMessage("message " + i, i % 2 == 1));
+        }
+
+        assertEquals(8, messages.size());
+        assertEquals(0, history.getArchivedCount());
+        assertFalse(Files.exists(archive));
+    }
+
+    @Test
+    public void add_overCapacity_archivesOldestMessagesInOrder(@TempDir Path tempDir) throws IOException {
+        Path archive = tempDir.resolve("chat-history.txt");
+        List<ChatMessage> messages = new ArrayList<>();
+        ChatHistory history = new ChatHistory(messages, 8, archive);
+
+        history.add(new ChatMessage("list", false));
+        history.add(new ChatMessage("1. [T][ ] read book\n2. [T][ ] return book", true));
+        for (int i = 2; i < 20; i++) {
+            history.add(new ChatMessage("message " + i, i % 2 == 1));
+        }
+
+        List<String> archived = Files.readAllLines(archive);
+        assertEquals(20, messages.size() + archived.size());
+        assertEquals(archived.size(), history.getArchivedCount());
+        assertEquals("U | list", archived.get(0));
+        assertEquals("M | 1. [T][ ] read book\\n2. [T][ ] return book", archived.get(1));
+        assertEquals("message " + archived.size(), messages.get(0).getText());
+        assertEquals("message 19", messages.get(messages.size() - 1).getText());
+    }
+}